@@ -1,6 +1,7 @@
 plugins {
     id("java")
     id("eu.kakde.gradle.sonatype-maven-central-publisher") version "1.0.6"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "io.github.evalexp"
@@ -14,6 +15,7 @@ dependencies {
     testImplementation(platform("org.junit:junit-bom:5.10.0"))
     testImplementation("org.junit.jupiter:junit-jupiter")
     implementation("org.yaml:snakeyaml:2.3")
+    testAnnotationProcessor(project(":processor"))
 }
 
 java {
@@ -21,10 +23,82 @@ java {
     targetCompatibility = JavaVersion.VERSION_1_8
 }
 
+// the library runs on Java 8, checked against the Java 8 API rather than only the language level
+tasks.compileJava {
+    options.release.set(8)
+}
+
 tasks.test {
     useJUnitPlatform()
 }
 
+// ------------------------------------
+// JFR EVENTS
+// ------------------------------------
+
+// JFR listener needs the jdk.jfr module, compiled apart from the Java 8 main classes and loaded reflectively by Context
+val jfr: SourceSet by sourceSets.creating {
+    compileClasspath += files(sourceSets.main.get().java.classesDirectory)
+}
+tasks.named<JavaCompile>(jfr.compileJavaTaskName) {
+    options.release.set(11)
+}
+sourceSets.test {
+    runtimeClasspath += jfr.output
+}
+tasks.jar {
+    from(jfr.output)
+}
+
+// ------------------------------------
+// LOCALE BUNDLE COMPILATION
+// ------------------------------------
+
+// build-only compiler tool, kept out of the library jar, shares the package of the runtime bundle reader
+// only the main classes, the main resources are produced by the compiler itself
+val bundleCompiler: SourceSet by sourceSets.creating {
+    compileClasspath += files(sourceSets.main.get().java.classesDirectory)
+    runtimeClasspath += files(sourceSets.main.get().java.classesDirectory)
+}
+configurations[bundleCompiler.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+
+// compile languages/*.yml and split bundle sections of each source set to binary bundles, Locale prefers them over yaml at runtime
+listOf(sourceSets.main.get(), sourceSets.test.get()).forEach { sourceSet ->
+    val resourceDir = file("src/${sourceSet.name}/resources")
+    val outputDir = layout.buildDirectory.dir("generated/localeBundles/${sourceSet.name}")
+    val compileLocaleBundles = tasks.register<JavaExec>(sourceSet.getTaskName("compile", "localeBundles")) {
+        group = "build"
+        description = "Compiles ${sourceSet.name} language files to binary locale bundles."
+        inputs.files(fileTree(resourceDir) { include("languages/*.yml", "languages/*/*.yml") })
+        outputs.dir(outputDir)
+        classpath = bundleCompiler.runtimeClasspath
+        mainClass.set("io.github.evalexp.LocaleBundleCompiler")
+        argumentProviders.add(CommandLineArgumentProvider {
+            listOf(resourceDir.absolutePath, outputDir.get().asFile.absolutePath, "languages")
+        })
+    }
+    tasks.named<ProcessResources>(sourceSet.processResourcesTaskName) {
+        from(compileLocaleBundles)
+    }
+}
+
+// ------------------------------------
+// BENCHMARKS
+// ------------------------------------
+
+// run with ./gradlew jmh, select benchmarks with -Pjmh.includes=Render
+// results are kept per version under benchmarks/ so that releases can be compared
+jmh {
+    jmhVersion.set("1.37")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    resultFormat.set("JSON")
+    resultsFile.set(layout.projectDirectory.file("benchmarks/jmh-${version}.json"))
+    jvmArgsAppend.add("-Djava.awt.headless=true")
+    (findProperty("jmh.includes") as String?)?.let { includes.add(it) }
+}
+
 // ------------------------------------
 // PUBLISHING TO SONATYPE CONFIGURATION
 // ------------------------------------
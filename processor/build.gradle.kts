@@ -0,0 +1,60 @@
+plugins {
+    id("java")
+    id("eu.kakde.gradle.sonatype-maven-central-publisher")
+}
+
+group = "io.github.evalexp"
+version = rootProject.version
+
+repositories {
+    mavenCentral()
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+// ------------------------------------
+// PUBLISHING TO SONATYPE CONFIGURATION
+// ------------------------------------
+
+// published on its own for annotationProcessor / -processorpath, the library jar carries no processor
+val GITHUB_REPO = "evalexp/easy-swing.git"
+
+val sonatypeUsername: String? by project // this is defined in ~/.gradle/gradle.properties
+val sonatypePassword: String? by project // this is defined in ~/.gradle/gradle.properties
+
+sonatypeCentralPublishExtension {
+    groupId.set(group.toString())
+    artifactId.set("${rootProject.name}-processor")
+    version.set(project.version.toString())
+    componentType.set("java")
+    publishingType.set("AUTOMATIC")
+
+    username.set(System.getenv("SONATYPE_USERNAME") ?: sonatypeUsername)
+    password.set(System.getenv("SONATYPE_PASSWORD") ?: sonatypePassword)
+
+    pom {
+        name.set("${rootProject.name}-processor")
+        description.set("Annotation processor generating the easy-swing frame binders")
+        url.set("https://github.com/${GITHUB_REPO}")
+        licenses {
+            license {
+                name.set("Apache-2.0")
+                url.set("https://opensource.org/licenses/Apache-2.0")
+            }
+        }
+        developers {
+            developer {
+                id.set("evalexp")
+                name.set("Zhou Hao")
+            }
+        }
+        scm {
+            url.set("https://github.com/${GITHUB_REPO}")
+            connection.set("scm:git:https://github.com/${GITHUB_REPO}")
+            developerConnection.set("scm:git:https://github.com/${GITHUB_REPO}")
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package io.github.evalexp.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generate a FrameBinder for every @Frame class, so that the frame is wired by plain field and method access.
+ * If a member is not accessible from the frame's package, the binder is not generated and the runtime falls back to reflection
+ */
+@SupportedAnnotationTypes(FrameBinderProcessor.FRAME)
+public class FrameBinderProcessor extends AbstractProcessor {
+    static final String FRAME = "io.github.evalexp.annotations.Frame";
+    private static final String I18N = "io.github.evalexp.annotations.I18N";
+    private static final String CONTAINER = "io.github.evalexp.annotations.Container";
+    private static final String INITIALIZER = "io.github.evalexp.annotations.Initializer";
+    private static final String CONTAINER_TYPE = "io.github.evalexp.Container";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS) continue;
+                TypeElement frame = (TypeElement) element;
+                try {
+                    String source = generate(frame);
+                    if (source == null) continue;
+                    try (Writer writer = processingEnv.getFiler().createSourceFile(binderName(frame), frame).openWriter()) {
+                        writer.write(source);
+                    }
+                } catch (UnsupportedFrameException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                            "FrameBinder not generated, fall back to reflection: " + e.getMessage(), frame);
+                } catch (IOException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.toString(), frame);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * get the binder class name, same rule as the runtime lookup
+     * @param frame frame class
+     * @return binder qualified name
+     */
+    private String binderName(TypeElement frame) {
+        String name = processingEnv.getElementUtils().getBinaryName(frame).toString();
+        int index = name.lastIndexOf('.');
+        return name.substring(0, index + 1) + name.substring(index + 1).replace('$', '_') + "_FrameBinder";
+    }
+
+    /**
+     * generate the binder source
+     * @param frame frame class
+     * @return java source, null if the frame is not a top level or member class
+     * @throws UnsupportedFrameException if the binder could not access a member
+     */
+    private String generate(TypeElement frame) throws UnsupportedFrameException {
+        if (frame.getNestingKind() == NestingKind.LOCAL || frame.getNestingKind() == NestingKind.ANONYMOUS) return null;
+        if (frame.getModifiers().contains(Modifier.PRIVATE))
+            throw new UnsupportedFrameException("frame class is private");
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(frame);
+        String frameType = processingEnv.getTypeUtils().erasure(frame.asType()).toString();
+        String binderName = binderName(frame);
+        String simpleName = binderName.substring(binderName.lastIndexOf('.') + 1);
+
+        StringBuilder bind = new StringBuilder();
+        StringBuilder initialize = new StringBuilder();
+        for (TypeElement type = frame; type != null; type = superclass(type)) {
+            for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                AnnotationMirror i18n = annotation(field, I18N);
+                if (i18n != null && Boolean.TRUE.equals(value(i18n, "lazy"))) appendLazyField(bind, frame, pkg, field, stringValue(i18n, "key"));
+                else if (i18n != null) appendI18NField(bind, frame, pkg, field, stringValue(i18n, "key"));
+                if (annotation(field, CONTAINER) != null) appendContainerField(bind, frame, pkg, field);
+            }
+        }
+        // same order as the runtime, by order then name, the binder is not used if any initializer is async or has dependencies
+        List<ExecutableElement> initializers = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(frame.getEnclosedElements())) {
+            if (annotation(method, INITIALIZER) != null) initializers.add(method);
+        }
+        initializers.sort(Comparator.comparingInt((ExecutableElement m) -> {
+            Object order = value(annotation(m, INITIALIZER), "order");
+            return order instanceof Integer ? (Integer) order : 0;
+        }).thenComparing(m -> m.getSimpleName().toString()));
+        for (ExecutableElement method : initializers) appendInitializer(initialize, frame, pkg, method);
+
+        StringBuilder source = new StringBuilder();
+        if (!pkg.isUnnamed()) source.append("package ").append(pkg.getQualifiedName()).append(";\n\n");
+        source.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+                .append("public final class ").append(simpleName)
+                .append(" implements io.github.evalexp.FrameBinder<").append(frameType).append("> {\n")
+                .append("    @Override\n")
+                .append("    public void bind(").append(frameType).append(" frame, io.github.evalexp.Container container) {\n")
+                .append(bind)
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public void initialize(").append(frameType).append(" frame, java.util.function.ObjLongConsumer<String> timing, Object... args) throws Exception {\n")
+                .append(initialize)
+                .append("    }\n")
+                .append("}\n");
+        return source.toString();
+    }
+
+    private void appendI18NField(StringBuilder out, TypeElement frame, PackageElement pkg, VariableElement field, String key) throws UnsupportedFrameException {
+        String type = processingEnv.getTypeUtils().erasure(field.asType()).toString();
+        String name = field.getSimpleName().toString();
+        ExecutableElement getter = findMethod(frame, "get" + capitalize(name), null);
+        ExecutableElement setter = findMethod(frame, "set" + capitalize(name), field.asType());
+        out.append("        {\n");
+        if (getter != null) {
+            requireAccessible(getter, pkg);
+            out.append("            Object origin = frame.").append(getter.getSimpleName()).append("();\n");
+            out.append("            ").append(type).append(" value = origin instanceof ").append(boxed(field.asType()))
+                    .append(" ? (").append(type).append(") origin : null;\n");
+        } else {
+            requireAccessible(field, pkg);
+            out.append("            ").append(type).append(" value = ").append(fieldAccess(frame, field)).append(";\n");
+        }
+        String register = "container.register(value, " + processingEnv.getElementUtils().getConstantExpression(key) + ");\n";
+        if (constructible(field.asType())) {
+            out.append("            if (value == null) value = new ").append(type).append("();\n");
+            appendAssign(out, frame, pkg, field, setter, "value", "            ");
+            out.append("            ").append(register);
+        } else {
+            out.append("            if (value != null) {\n");
+            appendAssign(out, frame, pkg, field, setter, "value", "                ");
+            out.append("                ").append(register);
+            out.append("            }\n");
+        }
+        out.append("        }\n");
+    }
+
+    /**
+     * lazy fields are registered with a reader and a factory, the field is read directly so that a resolving getter is not
+     * called on wiring, and the factory constructs it like the runtime injection, null if the type is not constructible
+     * @param out bind body
+     * @param frame frame class
+     * @param pkg frame package
+     * @param field lazy field
+     * @param key i18n key
+     * @throws UnsupportedFrameException if the field or its setter is not accessible
+     */
+    private void appendLazyField(StringBuilder out, TypeElement frame, PackageElement pkg, VariableElement field, String key) throws UnsupportedFrameException {
+        requireAccessible(field, pkg);
+        String type = processingEnv.getTypeUtils().erasure(field.asType()).toString();
+        String name = field.getSimpleName().toString();
+        ExecutableElement setter = findMethod(frame, "set" + capitalize(name), field.asType());
+        out.append("        container.registerLazy(").append(processingEnv.getElementUtils().getConstantExpression(name))
+                .append(", ").append(processingEnv.getElementUtils().getConstantExpression(key))
+                .append(", () -> ").append(fieldAccess(frame, field)).append(", () -> {\n");
+        if (constructible(field.asType())) {
+            out.append("            ").append(type).append(" value = new ").append(type).append("();\n");
+            appendAssign(out, frame, pkg, field, setter, "value", "            ");
+            out.append("            return value;\n");
+        } else {
+            out.append("            return null;\n");
+        }
+        out.append("        });\n");
+    }
+
+    /**
+     * the container is assigned only to fields which accept it, like the runtime injection which fails on other types
+     * @param out bind body
+     * @param frame frame class
+     * @param pkg frame package
+     * @param field container field
+     * @throws UnsupportedFrameException if the field or its setter is not accessible
+     */
+    private void appendContainerField(StringBuilder out, TypeElement frame, PackageElement pkg, VariableElement field) throws UnsupportedFrameException {
+        TypeElement container = processingEnv.getElementUtils().getTypeElement(CONTAINER_TYPE);
+        if (container == null || !processingEnv.getTypeUtils().isAssignable(container.asType(), field.asType())) return;
+        ExecutableElement setter = findMethod(frame, "set" + capitalize(field.getSimpleName().toString()), field.asType());
+        appendAssign(out, frame, pkg, field, setter, "container", "        ");
+    }
+
+    private void appendAssign(StringBuilder out, TypeElement frame, PackageElement pkg, VariableElement field, ExecutableElement setter, String value, String indent) throws UnsupportedFrameException {
+        if (setter != null) {
+            requireAccessible(setter, pkg);
+            out.append(indent).append("frame.").append(setter.getSimpleName()).append("(").append(value).append(");\n");
+        } else {
+            requireAccessible(field, pkg);
+            if (field.getModifiers().contains(Modifier.FINAL))
+                throw new UnsupportedFrameException("final field " + field.getSimpleName());
+            out.append(indent).append(fieldAccess(frame, field)).append(" = ").append(value).append(";\n");
+        }
+    }
+
+    private void appendInitializer(StringBuilder out, TypeElement frame, PackageElement pkg, ExecutableElement method) throws UnsupportedFrameException {
+        requireAccessible(method, pkg);
+        List<? extends VariableElement> parameters = method.getParameters();
+        out.append("        if (args.length == ").append(parameters.size());
+        List<String> arguments = new ArrayList<>();
+        for (int i = 0; i < parameters.size(); i++) {
+            String type = boxed(parameters.get(i).asType());
+            out.append(" && args[").append(i).append("] instanceof ").append(type);
+            arguments.add("(" + type + ") args[" + i + "]");
+        }
+        out.append(") {\n");
+        String target = method.getModifiers().contains(Modifier.STATIC)
+                ? processingEnv.getTypeUtils().erasure(frame.asType()).toString() : "frame";
+        // a returned Runnable is run after the initializer, like the runtime does
+        boolean result = method.getReturnType().getKind() != TypeKind.VOID;
+        // timed like the runtime, the returned Runnable excluded
+        out.append("            long start = System.nanoTime();\n");
+        out.append("            ").append(result ? "Object result = " : "").append(target).append(".").append(method.getSimpleName())
+                .append("(").append(String.join(", ", arguments)).append(");\n");
+        out.append("            timing.accept(\"").append(method.getSimpleName()).append("\", System.nanoTime() - start);\n");
+        if (result) out.append("            if (result instanceof Runnable) ((Runnable) result).run();\n");
+        out.append("        }\n");
+    }
+
+    /**
+     * field access expression, cast to the declaring class so that hidden fields resolve like reflection does
+     * @param frame frame class
+     * @param field target field
+     * @return access expression
+     */
+    private String fieldAccess(TypeElement frame, VariableElement field) {
+        Element owner = field.getEnclosingElement();
+        if (owner.equals(frame)) return "frame." + field.getSimpleName();
+        return "((" + processingEnv.getTypeUtils().erasure(owner.asType()) + ") frame)." + field.getSimpleName();
+    }
+
+    /**
+     * search the method in the class hierarchy like the runtime reflection does
+     * @param type frame class
+     * @param name method name
+     * @param parameter single parameter type, null for no parameter
+     * @return method if found, else null
+     */
+    private ExecutableElement findMethod(TypeElement type, String name, TypeMirror parameter) {
+        for (TypeElement clazz = type; clazz != null; clazz = superclass(clazz)) {
+            for (ExecutableElement method : ElementFilter.methodsIn(clazz.getEnclosedElements())) {
+                if (!method.getSimpleName().contentEquals(name)) continue;
+                List<? extends VariableElement> parameters = method.getParameters();
+                if (parameter == null ? parameters.isEmpty()
+                        : parameters.size() == 1 && processingEnv.getTypeUtils().isSameType(
+                                processingEnv.getTypeUtils().erasure(parameters.get(0).asType()),
+                                processingEnv.getTypeUtils().erasure(parameter)))
+                    return method;
+            }
+        }
+        return null;
+    }
+
+    private TypeElement superclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) return null;
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    private void requireAccessible(Element member, PackageElement pkg) throws UnsupportedFrameException {
+        Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.PUBLIC)) return;
+        if (!modifiers.contains(Modifier.PRIVATE)
+                && processingEnv.getElementUtils().getPackageOf(member).equals(pkg)) return;
+        throw new UnsupportedFrameException(member.getSimpleName() + " is not accessible");
+    }
+
+    private boolean constructible(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) return false;
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT)
+                || !element.getModifiers().contains(Modifier.PUBLIC)) return false;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(element.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)
+                    && constructor.getThrownTypes().isEmpty()) return true;
+        }
+        return false;
+    }
+
+    private String boxed(TypeMirror type) {
+        if (type.getKind().isPrimitive())
+            return processingEnv.getTypeUtils().boxedClass((javax.lang.model.type.PrimitiveType) type).getQualifiedName().toString();
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    private static AnnotationMirror annotation(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName))
+                return mirror;
+        }
+        return null;
+    }
+
+    private static String stringValue(AnnotationMirror mirror, String name) {
+        Object value = value(mirror, name);
+        return value != null ? String.valueOf(value) : null;
+    }
+
+    private static Object value(AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) return entry.getValue().getValue();
+        }
+        return null;
+    }
+
+    private static String capitalize(String str) {
+        if (str.isEmpty()) return str;
+        return Character.toUpperCase(str.charAt(0)) + str.substring(1);
+    }
+
+    /**
+     * The frame could not be wired by a generated binder, so the runtime reflection is kept
+     */
+    private static final class UnsupportedFrameException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private UnsupportedFrameException(String message) {
+            super(message);
+        }
+    }
+}
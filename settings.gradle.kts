@@ -1,2 +1,2 @@
 rootProject.name = "easy-swing"
-
+include("processor")
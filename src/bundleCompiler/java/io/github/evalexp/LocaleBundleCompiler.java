@@ -0,0 +1,84 @@
+package io.github.evalexp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compile yaml language files to binary locale bundles, used by the build
+ */
+public class LocaleBundleCompiler {
+    /**
+     * compile every $locale.yml and split bundle section $locale/*.yml in the search paths of the resource directory
+     * @param resourceDir resource root directory
+     * @param outputDir output root directory, bundles keep the relative path
+     * @param searchPaths language search paths, relative to the resource root
+     * @return compiled bundle count
+     * @throws IOException if read or write failed
+     */
+    public static int compile(Path resourceDir, Path outputDir, List<String> searchPaths) throws IOException {
+        int count = 0;
+        for (String searchPath : searchPaths) {
+            Path source = resourceDir.resolve(searchPath);
+            if (!Files.isDirectory(source)) continue;
+            Path target = outputDir.resolve(searchPath);
+            count += compileDirectory(source, target);
+            try (DirectoryStream<Path> directories = Files.newDirectoryStream(source, Files::isDirectory)) {
+                for (Path directory : directories) {
+                    count += compileDirectory(directory, target.resolve(directory.getFileName().toString()));
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * compile the yaml files directly in the directory
+     * @param source source directory
+     * @param target target directory
+     * @return compiled bundle count
+     * @throws IOException if read or write failed
+     */
+    private static int compileDirectory(Path source, Path target) throws IOException {
+        int count = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(source, "*.yml")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                Map<String, String> texts;
+                try (InputStream inputStream = Files.newInputStream(file)) {
+                    texts = Locale.loadYaml(inputStream);
+                }
+                Files.createDirectories(target);
+                Path bundle = target.resolve(name.substring(0, name.length() - ".yml".length()) + "." + BinaryMessageTable.EXTENSION);
+                try (OutputStream outputStream = Files.newOutputStream(bundle)) {
+                    BinaryMessageTable.write(texts, outputStream);
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * command line entrance
+     * @param args resource directory, output directory, then search paths, default languages
+     * @throws IOException if read or write failed
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: LocaleBundleCompiler <resourceDir> <outputDir> [searchPath...]");
+            System.exit(1);
+        }
+        List<String> searchPaths = args.length > 2 ? Arrays.asList(args).subList(2, args.length) : Collections.singletonList("languages");
+        int count = compile(Paths.get(args[0]), Paths.get(args[1]), searchPaths);
+        System.out.println("compiled " + count + " locale bundles");
+    }
+}
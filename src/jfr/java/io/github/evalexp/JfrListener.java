@@ -0,0 +1,185 @@
+package io.github.evalexp;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Emit the framework events to Java Flight Recorder, only loaded by {@link Context#enableJfrEvents()} when JFR is present.
+ * The setter event is disabled by default since it fires per component, enable it in the recording settings
+ */
+final class JfrListener implements ContextListener {
+    @Override
+    public void localeLoaded(String language, boolean loaded, long nanos) {
+        LocaleLoadEvent event = new LocaleLoadEvent();
+        if (!event.shouldCommit()) return;
+        event.language = language;
+        event.loaded = loaded;
+        event.elapsed = nanos;
+        event.commit();
+    }
+
+    @Override
+    public void classScanned(Class<?> clazz, long nanos) {
+        ClassScanEvent event = new ClassScanEvent();
+        if (!event.shouldCommit()) return;
+        event.scannedClass = clazz;
+        event.elapsed = nanos;
+        event.commit();
+    }
+
+    @Override
+    public void frameWired(Object frame, int components, long nanos) {
+        FrameWireEvent event = new FrameWireEvent();
+        if (!event.shouldCommit()) return;
+        event.frame = frame.getClass();
+        event.components = components;
+        event.elapsed = nanos;
+        event.commit();
+    }
+
+    @Override
+    public void initializerInvoked(Object frame, String initializer, long nanos) {
+        InitializerEvent event = new InitializerEvent();
+        if (!event.shouldCommit()) return;
+        event.frame = frame.getClass();
+        event.initializer = initializer;
+        event.elapsed = nanos;
+        event.commit();
+    }
+
+    @Override
+    public void renderPass(Object frame, RenderStats stats, long nanos) {
+        RenderPassEvent event = new RenderPassEvent();
+        if (!event.shouldCommit()) return;
+        event.frame = frame.getClass();
+        event.visited = stats.visited;
+        event.updated = stats.updated;
+        event.skipped = stats.skipped;
+        event.failed = stats.failed;
+        event.elapsed = nanos;
+        event.commit();
+    }
+
+    @Override
+    public void setterCalled(Object component, String key, long nanos) {
+        SetterEvent event = new SetterEvent();
+        if (!event.shouldCommit()) return;
+        event.component = component.getClass();
+        event.key = key;
+        event.elapsed = nanos;
+        event.commit();
+    }
+
+    @Override
+    public void frameFailed(Class<?> clazz, String id, Throwable error) {
+        FrameFailEvent event = new FrameFailEvent();
+        if (!event.shouldCommit()) return;
+        event.frame = clazz;
+        event.id = id;
+        event.error = String.valueOf(error);
+        event.commit();
+    }
+
+    /*
+     * the measured time is reported as a field, the events themselves are instant
+     */
+
+    @Name("io.github.evalexp.LocaleLoad")
+    @Label("Locale Load")
+    @Category("Easy Swing")
+    static final class LocaleLoadEvent extends Event {
+        @Label("Language")
+        String language;
+        @Label("Loaded")
+        boolean loaded;
+        @Label("Elapsed")
+        @Timespan
+        long elapsed;
+    }
+
+    @Name("io.github.evalexp.ClassScan")
+    @Label("Class Scan")
+    @Category("Easy Swing")
+    static final class ClassScanEvent extends Event {
+        @Label("Scanned Class")
+        Class<?> scannedClass;
+        @Label("Elapsed")
+        @Timespan
+        long elapsed;
+    }
+
+    @Name("io.github.evalexp.FrameWire")
+    @Label("Frame Wire")
+    @Category("Easy Swing")
+    static final class FrameWireEvent extends Event {
+        @Label("Frame")
+        Class<?> frame;
+        @Label("Components")
+        int components;
+        @Label("Elapsed")
+        @Timespan
+        long elapsed;
+    }
+
+    @Name("io.github.evalexp.Initializer")
+    @Label("Initializer")
+    @Category("Easy Swing")
+    static final class InitializerEvent extends Event {
+        @Label("Frame")
+        Class<?> frame;
+        @Label("Initializer")
+        String initializer;
+        @Label("Elapsed")
+        @Timespan
+        long elapsed;
+    }
+
+    @Name("io.github.evalexp.RenderPass")
+    @Label("Render Pass")
+    @Category("Easy Swing")
+    static final class RenderPassEvent extends Event {
+        @Label("Frame")
+        Class<?> frame;
+        @Label("Visited")
+        int visited;
+        @Label("Updated")
+        int updated;
+        @Label("Skipped")
+        int skipped;
+        @Label("Failed")
+        int failed;
+        @Label("Elapsed")
+        @Timespan
+        long elapsed;
+    }
+
+    @Name("io.github.evalexp.Setter")
+    @Label("Text Setter")
+    @Category("Easy Swing")
+    @Enabled(false)
+    static final class SetterEvent extends Event {
+        @Label("Component")
+        Class<?> component;
+        @Label("Key")
+        String key;
+        @Label("Elapsed")
+        @Timespan
+        long elapsed;
+    }
+
+    @Name("io.github.evalexp.FrameFail")
+    @Label("Frame Failure")
+    @Category("Easy Swing")
+    static final class FrameFailEvent extends Event {
+        @Label("Frame")
+        Class<?> frame;
+        @Label("Frame Id")
+        String id;
+        @Label("Error")
+        String error;
+    }
+}
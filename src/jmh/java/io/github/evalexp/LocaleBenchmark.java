@@ -0,0 +1,77 @@
+package io.github.evalexp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text lookup of a locale, by bundle size, key depth and table format
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LocaleBenchmark {
+    @Param({"100", "10000"})
+    int size;
+
+    @Param({"1", "4"})
+    int depth;
+
+    // map: parsed yaml table, bundle: binary bundle decoded on access
+    @Param({"map", "bundle"})
+    String format;
+
+    private Locale locale;
+    private String[] keys;
+    private int next;
+    private Path bundle;
+
+    @Setup
+    public void setup() throws IOException {
+        Map<String, String> texts = new HashMap<>();
+        keys = new String[size];
+        for (int i = 0; i < size; i++) {
+            StringBuilder key = new StringBuilder();
+            for (int d = 1; d < depth; d++) key.append("section").append(i % (d * 8)).append('.');
+            keys[i] = key.append("key").append(i).toString();
+            texts.put(keys[i], "text of " + keys[i]);
+        }
+        MessageTable table;
+        if (format.equals("bundle")) {
+            bundle = Files.createTempFile("locale", "." + BinaryMessageTable.EXTENSION);
+            try (OutputStream out = Files.newOutputStream(bundle)) {
+                BinaryMessageTable.write(texts, out);
+            }
+            table = BinaryMessageTable.open(bundle.toUri().toURL());
+        } else {
+            table = MessageTable.of(texts);
+        }
+        locale = new Locale("bench", table);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (bundle != null) Files.deleteIfExists(bundle);
+    }
+
+    @Benchmark
+    public String text() {
+        String key = keys[next];
+        next = next + 1 == keys.length ? 0 : next + 1;
+        return locale.text(key);
+    }
+}
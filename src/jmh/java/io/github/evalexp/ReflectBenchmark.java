@@ -0,0 +1,90 @@
+package io.github.evalexp;
+
+import io.github.evalexp.annotations.I18N;
+import io.github.evalexp.util.ReflectUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.swing.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reflection lookups used by wiring, over a deep frame hierarchy, and component construction
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReflectBenchmark {
+    private final Object frame = new Level7();
+    private final JLabel label = new JLabel();
+    private final List<String> searchMethods = Collections.singletonList("setText");
+    private Field field;
+    private Container container;
+
+    @Setup
+    public void setup() {
+        // the top level field, which has a setter
+        List<Field> fields = ReflectUtil.searchFieldByAnnotation(frame, I18N.class);
+        field = fields.get(fields.size() - 1);
+        Context.changeLocale("bench_a");
+        container = new Container(frame, searchMethods);
+    }
+
+    @Benchmark
+    public List<Field> searchFieldByAnnotation() {
+        return ReflectUtil.searchFieldByAnnotation(frame, I18N.class);
+    }
+
+    @Benchmark
+    public Method searchSetterByField() {
+        return ReflectUtil.searchSetterByField(frame, field);
+    }
+
+    @Benchmark
+    public Method searchI18NCompatibleMethod() {
+        return ReflectUtil.searchI18NCompatibleMethod(label, searchMethods);
+    }
+
+    @Benchmark
+    public Constructor<?> getConstructorNoArgs() {
+        return ReflectUtil.getConstructor(JLabel.class);
+    }
+
+    @Benchmark
+    public Constructor<?> getConstructorWithArgs() {
+        return ReflectUtil.getConstructor(JLabel.class, "Hello");
+    }
+
+    @Benchmark
+    public JLabel newCompatibleComponent() {
+        return container.newCompatibleComponent(JLabel.class, "bench.k0", "Hello");
+    }
+
+    /*
+     * eight level frame hierarchy, each level declares i18n and plain fields
+     */
+
+    public static class Level0 {
+        @I18N(key = "bench.k0") JLabel label0;
+        int plain0;
+        public void setLabel0(JLabel label0) { this.label0 = label0; }
+    }
+
+    public static class Level1 extends Level0 { @I18N(key = "bench.k1") JLabel label1; int plain1; }
+    public static class Level2 extends Level1 { @I18N(key = "bench.k2") JLabel label2; int plain2; }
+    public static class Level3 extends Level2 { @I18N(key = "bench.k3") JLabel label3; int plain3; }
+    public static class Level4 extends Level3 { @I18N(key = "bench.k4") JLabel label4; int plain4; }
+    public static class Level5 extends Level4 { @I18N(key = "bench.k5") JLabel label5; int plain5; }
+    public static class Level6 extends Level5 { @I18N(key = "bench.k6") JLabel label6; int plain6; }
+    public static class Level7 extends Level6 { @I18N(key = "bench.k7") JLabel label7; int plain7; }
+}
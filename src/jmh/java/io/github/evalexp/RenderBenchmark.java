@@ -0,0 +1,78 @@
+package io.github.evalexp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full render pass of a container, by bound component count.
+ * The container is not registered to the context, so the scheduled render of a locale change does not touch it
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RenderBenchmark {
+    private static final int KEYS = 64;
+
+    @Param({"100", "1000", "10000", "100000"})
+    int components;
+
+    private Container container;
+    // strong references, the container only holds the components weakly
+    private final List<JLabel> labels = new ArrayList<>();
+    private final List<String> someKeys = new ArrayList<>();
+    private boolean toggle;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Context.changeLocale("bench_a");
+        container = new Container(new Object(), Collections.singletonList("setText"));
+        for (int i = 0; i < components; i++) {
+            JLabel label = new JLabel();
+            labels.add(label);
+            container.register(label, "bench.k" + (i % KEYS));
+        }
+        for (int i = 0; i < KEYS; i += 8) someKeys.add("bench.k" + i);
+        container.render();
+    }
+
+    /**
+     * every text changed, all setters are called
+     */
+    @Benchmark
+    public RenderStats renderChanged() {
+        toggle = !toggle;
+        Context.changeLocale(toggle ? "bench_b" : "bench_a");
+        return container.render();
+    }
+
+    /**
+     * nothing changed, all components are skipped by the diff
+     */
+    @Benchmark
+    public RenderStats renderUnchanged() {
+        return container.render();
+    }
+
+    /**
+     * an eighth of the keys changed, only their components are visited
+     */
+    @Benchmark
+    public RenderStats renderKeys() {
+        toggle = !toggle;
+        Context.changeLocale(toggle ? "bench_b" : "bench_a");
+        return container.render(someKeys);
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.evalexp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Yaml parsing and flattening of a language file, by text count and key depth
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class YamlBenchmark {
+    @Param({"100", "10000"})
+    int size;
+
+    @Param({"1", "4"})
+    int depth;
+
+    private byte[] document;
+
+    @Setup
+    public void setup() {
+        StringBuilder yaml = new StringBuilder();
+        int sections = depth == 1 ? 1 : Math.max(1, size / 100);
+        for (int s = 0; s < sections; s++) {
+            String indent = "";
+            for (int d = 1; d < depth; d++) {
+                yaml.append(indent).append("section").append(s).append('_').append(d).append(":\n");
+                indent += "  ";
+            }
+            for (int i = 0; i < size / sections; i++) {
+                yaml.append(indent).append("key").append(i).append(": text of key ").append(i).append('\n');
+            }
+        }
+        document = yaml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Map<String, String> loadYaml() throws IOException {
+        return Locale.loadYaml(new ByteArrayInputStream(document));
+    }
+}
@@ -0,0 +1,211 @@
+package io.github.evalexp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Compiled binary locale bundle, texts are decoded lazily on access.
+ * <pre>
+ * int    magic 'ESLB'
+ * int    version
+ * int    count
+ * int[]  count * (key offset, key length, text offset, text length), sorted by key, offsets relative to the pool
+ * byte[] UTF-8 string pool
+ * </pre>
+ */
+final class BinaryMessageTable implements MessageTable {
+    static final String EXTENSION = "bundle";
+    private static final int MAGIC = 0x45534C42;
+    private static final int VERSION = 1;
+    private static final int HEADER = 12;
+    private static final int ENTRY = 16;
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int pool;
+    // decoded texts, benign racy cache
+    private final String[] texts;
+
+    private BinaryMessageTable(ByteBuffer buffer) throws IOException {
+        if (buffer.limit() < HEADER || buffer.getInt(0) != MAGIC) throw new IOException("not a locale bundle");
+        if (buffer.getInt(4) != VERSION) throw new IOException("unsupported locale bundle version " + buffer.getInt(4));
+        this.buffer = buffer;
+        this.count = buffer.getInt(8);
+        if (count < 0 || HEADER + (long) count * ENTRY > buffer.limit()) throw new IOException("corrupted locale bundle, bad entry count " + count);
+        this.pool = HEADER + count * ENTRY;
+        for (int i = 0; i < count; i++) {
+            int entry = HEADER + i * ENTRY;
+            if (!inPool(buffer.getInt(entry), buffer.getInt(entry + 4)) || !inPool(buffer.getInt(entry + 8), buffer.getInt(entry + 12)))
+                throw new IOException("corrupted locale bundle, entry " + i + " out of bounds");
+        }
+        this.texts = new String[count];
+    }
+
+    /**
+     * test if the string lies in the pool
+     * @param offset offset relative to the pool
+     * @param length encoded length
+     * @return if in bounds
+     */
+    private boolean inPool(int offset, int length) {
+        return offset >= 0 && length >= 0 && (long) pool + offset + length <= buffer.limit();
+    }
+
+    /**
+     * open the bundle, read into heap and never memory mapped, so that rewriting the file could not break an opened table
+     * @param url bundle resource
+     * @return table
+     * @throws IOException if read failed, not a bundle or corrupted
+     */
+    static BinaryMessageTable open(URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return new BinaryMessageTable(ByteBuffer.wrap(Files.readAllBytes(Paths.get(url.toURI()))));
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                // fall through to stream reading
+            }
+        }
+        try (InputStream inputStream = url.openStream()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int n;
+            while ((n = inputStream.read(chunk)) != -1) out.write(chunk, 0, n);
+            return new BinaryMessageTable(ByteBuffer.wrap(out.toByteArray()));
+        }
+    }
+
+    /**
+     * write the texts as binary bundle
+     * @param texts flattened texts
+     * @param outputStream target stream, not closed
+     * @throws IOException if write failed
+     */
+    static void write(Map<String, String> texts, OutputStream outputStream) throws IOException {
+        List<String> keys = new ArrayList<>(texts.keySet());
+        Collections.sort(keys);
+        ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        int[] index = new int[keys.size() * 4];
+        for (int i = 0; i < keys.size(); i++) {
+            byte[] key = keys.get(i).getBytes(StandardCharsets.UTF_8);
+            byte[] text = texts.get(keys.get(i)).getBytes(StandardCharsets.UTF_8);
+            index[i * 4] = pool.size();
+            index[i * 4 + 1] = key.length;
+            pool.write(key);
+            index[i * 4 + 2] = pool.size();
+            index[i * 4 + 3] = text.length;
+            pool.write(text);
+        }
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(keys.size());
+        for (int value : index) out.writeInt(value);
+        pool.writeTo(out);
+        out.flush();
+    }
+
+    @Override
+    public String get(String key) {
+        int low = 0, high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int entry = HEADER + mid * ENTRY;
+            int cmp = compare(key, pool + buffer.getInt(entry), buffer.getInt(entry + 4));
+            if (cmp > 0) low = mid + 1;
+            else if (cmp < 0) high = mid - 1;
+            else return text(mid);
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public void forEach(BiConsumer<String, String> action) {
+        for (int i = 0; i < count; i++) {
+            int entry = HEADER + i * ENTRY;
+            action.accept(decode(pool + buffer.getInt(entry), buffer.getInt(entry + 4)), text(i));
+        }
+    }
+
+    @Override
+    public void forEachKey(ObjIntConsumer<String> action) {
+        for (int i = 0; i < count; i++) {
+            int entry = HEADER + i * ENTRY;
+            action.accept(decode(pool + buffer.getInt(entry), buffer.getInt(entry + 4)), i);
+        }
+    }
+
+    @Override
+    public String text(int i) {
+        String text = texts[i];
+        if (text == null) {
+            int entry = HEADER + i * ENTRY;
+            text = decode(pool + buffer.getInt(entry + 8), buffer.getInt(entry + 12));
+            texts[i] = text;
+        }
+        return text;
+    }
+
+    private String decode(int offset, int length) {
+        ByteBuffer slice = buffer.duplicate();
+        slice.limit(offset + length).position(offset);
+        return StandardCharsets.UTF_8.decode(slice).toString();
+    }
+
+    /**
+     * compare the key with the UTF-8 encoded key in UTF-16 order without decoding to a string
+     * @param key search key
+     * @param offset encoded key offset
+     * @param length encoded key length
+     * @return negative, zero or positive as the search key is less than, equal to or greater than the encoded key
+     */
+    private int compare(String key, int offset, int length) {
+        int i = 0, p = offset, end = offset + length, size = key.length();
+        while (p < end) {
+            int b = buffer.get(p) & 0xff;
+            int cp;
+            if (b < 0x80) {
+                cp = b;
+                p += 1;
+            } else if (b < 0xE0) {
+                cp = ((b & 0x1f) << 6) | (buffer.get(p + 1) & 0x3f);
+                p += 2;
+            } else if (b < 0xF0) {
+                cp = ((b & 0x0f) << 12) | ((buffer.get(p + 1) & 0x3f) << 6) | (buffer.get(p + 2) & 0x3f);
+                p += 3;
+            } else {
+                cp = ((b & 0x07) << 18) | ((buffer.get(p + 1) & 0x3f) << 12) | ((buffer.get(p + 2) & 0x3f) << 6) | (buffer.get(p + 3) & 0x3f);
+                p += 4;
+            }
+            if (cp >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                if (i >= size) return -1;
+                int cmp = key.charAt(i++) - Character.highSurrogate(cp);
+                if (cmp != 0) return cmp;
+                cp = Character.lowSurrogate(cp);
+            }
+            if (i >= size) return -1;
+            int cmp = key.charAt(i++) - cp;
+            if (cmp != 0) return cmp;
+        }
+        return i < size ? 1 : 0;
+    }
+}
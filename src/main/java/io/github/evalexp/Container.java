@@ -1,43 +1,83 @@
 package io.github.evalexp;
 
 import io.github.evalexp.annotations.I18N;
+import io.github.evalexp.util.ClassMetadata;
+import io.github.evalexp.util.InstanceFactory;
 import io.github.evalexp.util.ReflectUtil;
+import io.github.evalexp.util.WeakIdentityMap;
 
 import java.awt.*;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
 import java.lang.reflect.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 /**
- * UI Container, frame component storage
+ * UI Container, frame component storage, the component registry is guarded by the container itself.
+ * Text setters and frame code are never called while the container is locked, the work is collected under the lock and run after it
  */
 public class Container {
     // JFrame object
-    private Object frame;
-    // components container
-    private Map<Object, String> components = new LinkedHashMap<>();
-    // components i18n compatible method
-    private Map<Object, Method> methods = new LinkedHashMap<>();
+    private volatile Object frame;
+    // frame id while registered to the context, null if closed or pooled
+    volatile String id;
+    // if a look and feel switch skipped the frame while hidden, EDT confined
+    boolean lookAndFeelStale;
+    // components container, weak identity keys so that dropped components could be collected
+    private final WeakIdentityMap<Object, Binding> components = new WeakIdentityMap<>(this::unindex);
+    // reverse index, i18n key -> bindings of bound components
+    private final Map<String, Set<Binding>> keyIndex = new HashMap<>();
     // i18n change method
     private List<String> i18nSearchMethods;
+    // nested batch depth, rendering of new components is deferred while positive
+    private int batchDepth;
+    // if components registered during the batch
+    private boolean batchDirty;
+    // lazy @I18N fields by name, subclass first
+    private final Map<String, LazyField> lazyFields = new HashMap<>();
+    // components waiting to become displayable before binding, with their hierarchy listener
+    private final Map<Component, HierarchyListener> pendingDisplayable = new IdentityHashMap<>();
+    // completion of the frame initializers, including async ones
+    private volatile CompletableFuture<Void> initialized = CompletableFuture.completedFuture(null);
+    // per initializer timing
+    private final StartupReport initializerReport = new StartupReport();
 
     /**
      * create the ui container
      * @param frame container's frame
-     * @param i18nSearchMethods i18n text search method, for component text setter
+     * @param i18nSearchMethods i18n text search method, for component text setter, snapshotted
      */
     public Container(Object frame, List<String> i18nSearchMethods) {
         this.frame = frame;
-        this.i18nSearchMethods = i18nSearchMethods;
+        this.i18nSearchMethods = Collections.unmodifiableList(new ArrayList<>(i18nSearchMethods));
     }
 
     /**
-     * clear this container
+     * clear this container, components still waiting to become displayable are detached
      */
     public void clear() {
-        components.clear();
-        frame = null;
+        Map<Component, HierarchyListener> pending;
+        synchronized (this) {
+            components.clear();
+            keyIndex.clear();
+            lazyFields.clear();
+            pending = new IdentityHashMap<>(pendingDisplayable);
+            pendingDisplayable.clear();
+            frame = null;
+        }
+        pending.forEach(Component::removeHierarchyListener);
     }
 
     /**
@@ -48,21 +88,12 @@ public class Container {
      * @return the component
      */
     private Object injectObject(Field field, boolean keepOrigin, Object value) {
-        if (keepOrigin) {
-            try {
-                Method getter = ReflectUtil.searchGetterByField(frame, field);
-                if (getter != null) {
-                    getter.setAccessible(true);
-                    value = getter.invoke(frame);
-                } else {
-                    field.setAccessible(true);
-                    value = field.get(frame);
-                }
-            } catch (Exception e) {}
-        }
+        if (keepOrigin) value = readField(field, true);
         if (value == null) {
             try {
-                value = field.getType().getConstructor().newInstance();
+                InstanceFactory factory = ClassMetadata.of(field.getType()).getFactory();
+                if (factory == null) return null;
+                value = factory.newInstance();
             } catch (Exception e) {
                 return null;
             }
@@ -85,51 +116,417 @@ public class Container {
         return injectObject(field, true, null);
     }
 
+    /**
+     * read the field value of the frame
+     * @param field target field
+     * @param useGetter if read through the getter when present
+     * @return field value, null if failed
+     */
+    private Object readField(Field field, boolean useGetter) {
+        try {
+            Method getter = useGetter ? ReflectUtil.searchGetterByField(frame, field) : null;
+            if (getter != null) {
+                getter.setAccessible(true);
+                return getter.invoke(frame);
+            }
+            field.setAccessible(true);
+            return field.get(frame);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     /**
      * auto wire i18n components and container
      */
     public void autoWired() {
+        ContextListener listener = Context.listener();
+        long start = listener != null ? System.nanoTime() : 0;
+        FrameBinder<Object> binder = FrameBinders.find(frame.getClass());
+        if (binder != null) {
+            binder.bind(frame, this);
+        } else {
+            this.reflectWired();
+        }
+        if (listener != null) listener.frameWired(frame, this.getLiveComponentCount(), System.nanoTime() - start);
+        this.render();
+    }
+
+    /**
+     * auto wire i18n components and container by reflection, when the frame has no generated binder
+     */
+    private void reflectWired() {
         for (Field field : ReflectUtil.searchFieldByAnnotation(frame, I18N.class)) {
-            Object value = injectObject(field);
-            if (value != null) components.put(value, field.getAnnotation(I18N.class).key());
+            if (field.getAnnotation(I18N.class).lazy()) {
+                this.registerLazy(field.getName(), field.getAnnotation(I18N.class).key(), () -> readField(field, false),
+                        () -> injectObject(field, false, null));
+                continue;
+            }
+            this.register(injectObject(field), field.getAnnotation(I18N.class).key());
         }
 
         for (Field field : ReflectUtil.searchFieldByAnnotation(frame, io.github.evalexp.annotations.Container.class))
             injectObject(field, false, this);
+    }
 
-        this.render();
+    /**
+     * register the component with i18n key without rendering, used by generated frame binders
+     * @param component target component
+     * @param i18nKey text key
+     */
+    public synchronized void register(Object component, String i18nKey) {
+        if (component != null) this.put(component, new Binding(i18nKey));
+    }
+
+    /**
+     * register the lazy @I18N field without constructing it, also used by generated frame binders.
+     * a present component is bound when it becomes displayable, a null field is kept for {@link #resolve(String)}.
+     * the field is read directly since its getter usually resolves it
+     * @param field field name
+     * @param i18nKey text key
+     * @param reader reads the field
+     * @param factory constructs the component and injects it to the field, returns null if failed
+     */
+    public void registerLazy(String field, String i18nKey, Supplier<Object> reader, Supplier<Object> factory) {
+        Object value = reader.get();
+        LazyField lazy = new LazyField(i18nKey, reader, factory);
+        lazy.resolved = value != null;
+        synchronized (this) {
+            // a hidden superclass field is not registered
+            if (lazyFields.putIfAbsent(field, lazy) != null) return;
+        }
+        if (value != null) this.bindWhenDisplayable(value, i18nKey);
+    }
+
+    /**
+     * get the @I18N field value, a lazy field is constructed, injected and bound on first call,
+     * call it from the field's getter to defer construction of rarely used components
+     * @param field field name
+     * @return field value
+     * @param <T> type of the field
+     * @throws IllegalArgumentException if the frame has no such @I18N field
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T resolve(String field) {
+        if (frame == null) return null;
+        LazyField lazy;
+        boolean construct;
+        synchronized (this) {
+            lazy = lazyFields.get(field);
+            construct = lazy != null && !lazy.resolved;
+            if (construct) lazy.resolved = true;
+        }
+        if (construct) {
+            Object value = lazy.factory.get();
+            if (value != null) this.bind(value, lazy.key, null);
+            return (T) value;
+        }
+        if (lazy != null) return (T) lazy.reader.get();
+        Field target = this.findI18NField(field);
+        if (target == null) throw new IllegalArgumentException("no @I18N field " + field + " in " + frame.getClass().getName());
+        return (T) this.readField(target, false);
+    }
+
+    /**
+     * get the completion of the frame initializers, async initializers and their dependents complete after the frame is shown
+     * @return future completed when all initializers complete, exceptionally if any failed
+     */
+    public CompletableFuture<Void> getInitialized() {
+        return initialized;
+    }
+
+    /**
+     * set the completion of the frame initializers
+     * @param initialized initializers future
+     */
+    void setInitialized(CompletableFuture<Void> initialized) {
+        this.initialized = initialized;
+    }
+
+    /**
+     * get the elapsed time of each initializer, by method name
+     * @return initializer timing
+     */
+    public StartupReport getInitializerReport() {
+        return initializerReport;
     }
 
     /**
-     * render all i18n components
+     * get the count of lazy fields not constructed yet
+     * @return unresolved lazy field count
      */
-    public void render() {
-        for (Map.Entry<Object, String> entry : components.entrySet()) {
-            this.tryRenderComponent(entry.getKey(), entry.getValue());
+    public synchronized int getUnresolvedLazyCount() {
+        int count = 0;
+        for (LazyField lazy : lazyFields.values()) {
+            if (!lazy.resolved) count++;
         }
+        return count;
     }
 
     /**
-     * try render the component with i18n text
+     * find the @I18N field of the frame by name, subclass first
+     * @param name field name
+     * @return field if found, else null
+     */
+    private Field findI18NField(String name) {
+        for (Field field : ReflectUtil.searchFieldByAnnotation(frame, I18N.class)) {
+            if (field.getName().equals(name)) return field;
+        }
+        return null;
+    }
+
+    /**
+     * bind the component now if displayable, else when it becomes displayable, such as added to a shown frame
      * @param component target component
-     * @param i18nKey i18n text key, search in language file
+     * @param i18nKey text key
      */
-    private void tryRenderComponent(Object component, String i18nKey) {
-        Method i18nCompatibleMethod = this.methods.get(component);
-        if (i18nCompatibleMethod == null) {
-            i18nCompatibleMethod = ReflectUtil.searchI18NCompatibleMethod(component);
+    private void bindWhenDisplayable(Object component, String i18nKey) {
+        if (!(component instanceof Component) || ((Component) component).isDisplayable()) {
+            this.bind(component, i18nKey, null);
+            return;
         }
-        if (i18nCompatibleMethod == null) {
-            i18nCompatibleMethod = ReflectUtil.searchI18NCompatibleMethod(component, this.i18nSearchMethods);
+        Component target = (Component) component;
+        HierarchyListener listener = new HierarchyListener() {
+            @Override
+            public void hierarchyChanged(HierarchyEvent e) {
+                if ((e.getChangeFlags() & HierarchyEvent.DISPLAYABILITY_CHANGED) == 0 || !target.isDisplayable()) return;
+                target.removeHierarchyListener(this);
+                synchronized (Container.this) {
+                    // cleared meanwhile
+                    if (pendingDisplayable.remove(target) != this) return;
+                }
+                bind(target, i18nKey, null);
+            }
+        };
+        synchronized (this) {
+            if (frame == null) return;
+            pendingDisplayable.put(target, listener);
         }
-        if (i18nCompatibleMethod != null) {
-            if (!this.methods.containsKey(component)) this.methods.put(component, i18nCompatibleMethod);
-            try {
-                i18nCompatibleMethod.invoke(component, Context.getLocale().text(i18nKey));
-            } catch (IllegalAccessException | InvocationTargetException e) {
-                e.printStackTrace();
+        target.addHierarchyListener(listener);
+        // became displayable before the listener was added
+        if (target.isDisplayable()) listener.hierarchyChanged(new HierarchyEvent(target, HierarchyEvent.HIERARCHY_CHANGED,
+                target, target.getParent(), HierarchyEvent.DISPLAYABILITY_CHANGED));
+    }
+
+    /**
+     * render all i18n components, only the components whose text changed would be updated
+     * @return render statistics of this pass
+     */
+    public RenderStats render() {
+        List<Object> targets = new ArrayList<>();
+        List<Binding> bindings = new ArrayList<>();
+        synchronized (this) {
+            components.forEach((component, binding) -> {
+                targets.add(component);
+                bindings.add(binding);
+            });
+        }
+        return this.render(targets, bindings);
+    }
+
+    /**
+     * render the collected components, called without the container lock
+     * @param targets bound components
+     * @param bindings bindings of the components, same order
+     * @return render statistics of this pass
+     */
+    private RenderStats render(List<Object> targets, List<Binding> bindings) {
+        RenderStats stats = new RenderStats();
+        Locale locale = Context.getLocale();
+        ContextListener listener = Context.listener();
+        long start = listener != null ? System.nanoTime() : 0;
+        for (int i = 0; i < targets.size(); i++) this.tryRenderComponent(targets.get(i), bindings.get(i), locale, stats, listener);
+        Object frame = this.frame;
+        if (listener != null && frame != null) listener.renderPass(frame, stats, System.nanoTime() - start);
+        return stats;
+    }
+
+    /**
+     * try render the component with i18n text, skip if the text is not changed since last render.
+     * the text is claimed under the binding lock and the setter is called after it, a render which finds a newer claim
+     * after its setter applies the newer text again, so the component ends with the latest text when renders race
+     * @param component target component
+     * @param binding component binding
+     * @param locale current locale
+     * @param stats render statistics
+     * @param listener instrumentation listener, null if not instrumented
+     */
+    private void tryRenderComponent(Object component, Binding binding, Locale locale, RenderStats stats, ContextListener listener) {
+        stats.visited++;
+        String text;
+        try {
+            text = binding.args == null ? locale.text(binding.key) : locale.format(binding.key, binding.args.get());
+        } catch (RuntimeException e) {
+            // a failed argument supplier only fails its own component
+            stats.failed++;
+            e.printStackTrace();
+            return;
+        }
+        BiConsumer<Object, String> setter;
+        long version;
+        synchronized (binding) {
+            if (!binding.resolved) {
+                binding.setter = this.searchTextSetter(component);
+                binding.resolved = true;
+            }
+            if (binding.setter == null || (binding.rendered && Objects.equals(text, binding.text))) {
+                stats.skipped++;
+                return;
+            }
+            setter = binding.setter;
+            binding.text = text;
+            binding.rendered = true;
+            version = ++binding.version;
+        }
+        try {
+            while (true) {
+                if (listener == null) {
+                    setter.accept(component, text);
+                } else {
+                    long start = System.nanoTime();
+                    setter.accept(component, text);
+                    listener.setterCalled(component, binding.key, System.nanoTime() - start);
+                }
+                synchronized (binding) {
+                    if (binding.version == version) break;
+                    text = binding.text;
+                    version = binding.version;
+                }
+            }
+            stats.updated++;
+        } catch (RuntimeException e) {
+            synchronized (binding) {
+                // retry on next render unless a newer text was claimed meanwhile
+                if (binding.version == version) binding.rendered = false;
+            }
+            stats.failed++;
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * render the components bound to the keys, only the components whose text changed would be updated
+     * @param keys changed i18n keys
+     * @return render statistics of this pass
+     */
+    public RenderStats render(Collection<String> keys) {
+        List<Object> targets = new ArrayList<>();
+        List<Binding> bindings = new ArrayList<>();
+        synchronized (this) {
+            components.expunge();
+            for (String key : keys) {
+                Set<Binding> bound = keyIndex.get(key);
+                if (bound == null) continue;
+                for (Binding binding : bound) {
+                    Object component = binding.entry.get();
+                    if (component == null) continue;
+                    targets.add(component);
+                    bindings.add(binding);
+                }
+            }
+        }
+        return this.render(targets, bindings);
+    }
+
+    /**
+     * store the binding and index it by key
+     * @param component target component
+     * @param binding component binding
+     */
+    private void put(Object component, Binding binding) {
+        Binding old = components.put(component, binding);
+        if (old != null) this.unindex(old);
+        binding.entry = components.getEntry(component);
+        keyIndex.computeIfAbsent(binding.key, k -> Collections.newSetFromMap(new LinkedHashMap<>())).add(binding);
+    }
+
+    /**
+     * remove the binding from the key index
+     * @param binding removed or pruned binding
+     */
+    private void unindex(Binding binding) {
+        Set<Binding> bound = keyIndex.get(binding.key);
+        if (bound != null && bound.remove(binding) && bound.isEmpty()) keyIndex.remove(binding.key);
+    }
+
+    /**
+     * get the count of live bound components
+     * @return live component count
+     */
+    public synchronized int getLiveComponentCount() {
+        return components.size();
+    }
+
+    /**
+     * get the count of bound components pruned since they were garbage collected without release
+     * @return pruned component count
+     */
+    public synchronized long getPrunedComponentCount() {
+        return components.getPrunedCount();
+    }
+
+    /**
+     * register the component and render it
+     * @param component target component
+     * @param i18nKey text key
+     * @param args message arguments supplier, null for plain text
+     */
+    private void bind(Object component, String i18nKey, Supplier<Object[]> args) {
+        Binding binding = new Binding(i18nKey);
+        binding.args = args;
+        synchronized (this) {
+            this.put(component, binding);
+            if (batchDepth > 0) {
+                batchDirty = true;
+                return;
             }
         }
+        this.tryRenderComponent(component, binding, Context.getLocale(), new RenderStats(), Context.listener());
+    }
+
+    /**
+     * run the block with rendering deferred, components created or packed in the block are rendered in one pass when it exits,
+     * also when the block throws, so that the components registered before the failure get their text.
+     * the container is not locked while the block runs
+     * @param block batch block
+     * @return render statistics of the deferred pass, empty if nested or nothing registered
+     */
+    public RenderStats batch(Runnable block) {
+        synchronized (this) {
+            batchDepth++;
+        }
+        RenderStats stats = new RenderStats();
+        try {
+            block.run();
+        } finally {
+            if (this.endBatch()) stats = this.render();
+        }
+        return stats;
+    }
+
+    /**
+     * leave the batch, the dirty flag is reset when the outermost batch exits
+     * @return if the deferred pass should run
+     */
+    private synchronized boolean endBatch() {
+        batchDepth--;
+        if (batchDepth > 0 || !batchDirty) return false;
+        batchDirty = false;
+        return true;
+    }
+
+    /**
+     * search the component's text setter, @I18NMethod first, then the i18n search methods
+     * @param component target component
+     * @return compiled text setter if success, else null
+     */
+    private BiConsumer<Object, String> searchTextSetter(Object component) {
+        Method i18nCompatibleMethod = ReflectUtil.searchI18NCompatibleMethod(component);
+        if (i18nCompatibleMethod == null) {
+            i18nCompatibleMethod = ReflectUtil.searchI18NCompatibleMethod(component, this.i18nSearchMethods);
+        }
+        if (i18nCompatibleMethod == null) return null;
+        return ClassMetadata.of(component.getClass()).getTextSetter(i18nCompatibleMethod);
     }
 
     /**
@@ -164,11 +561,11 @@ public class Container {
      * @return the new component
      */
     public <T> T newCompatibleComponent(Class<T> componentClass, String i18nKey, Object... args) {
-        Constructor<?> constructor = ReflectUtil.getConstructor(componentClass, args);
+        InstanceFactory factory = ClassMetadata.of(componentClass).getFactory(args);
+        if (factory == null) throw new IllegalArgumentException("no public constructor of " + componentClass.getName() + " accepts the args, or the args match several ambiguously");
         try {
-            T component = (T) constructor.newInstance(args);
-            components.put(component, i18nKey);
-            this.tryRenderComponent(component, i18nKey);
+            T component = (T) factory.newInstance(args);
+            this.bind(component, i18nKey, null);
             return component;
         } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
             e.printStackTrace();
@@ -181,8 +578,9 @@ public class Container {
      * @param component target component
      * @param <T> type of the component
      */
-    public <T extends Component> void releaseComponent(T component) {
-        this.components.remove(component);
+    public synchronized <T extends Component> void releaseComponent(T component) {
+        Binding binding = this.components.remove(component);
+        if (binding != null) this.unindex(binding);
     }
 
     /**
@@ -194,8 +592,66 @@ public class Container {
      */
     public <T extends Component> boolean packComponent(T component, String i18nKey) {
         if (component == null || Context.getLocale().text(i18nKey) == null) return false;
-        components.put(component, i18nKey);
-        this.tryRenderComponent(component, i18nKey);
+        this.bind(component, i18nKey, null);
         return true;
     }
+
+    /**
+     * pack the component with parameterized i18n text, such as "{0} items selected",
+     * the arguments are supplied again on every render so the text stays fresh
+     * @param component target component
+     * @param i18nKey text key
+     * @param args message arguments supplier
+     * @return if success
+     * @param <T> type of the component
+     */
+    public <T extends Component> boolean packComponent(T component, String i18nKey, Supplier<Object[]> args) {
+        if (component == null || args == null || Context.getLocale().text(i18nKey) == null) return false;
+        this.bind(component, i18nKey, args);
+        return true;
+    }
+
+    /**
+     * lazy @I18N field accessors
+     */
+    private static final class LazyField {
+        private final String key;
+        private final Supplier<Object> reader;
+        private final Supplier<Object> factory;
+        // if constructed or present on wiring, guarded by the container
+        private boolean resolved;
+
+        private LazyField(String key, Supplier<Object> reader, Supplier<Object> factory) {
+            this.key = key;
+            this.reader = reader;
+            this.factory = factory;
+        }
+    }
+
+    /**
+     * component i18n binding
+     */
+    private static final class Binding {
+        // i18n text key
+        private final String key;
+        // registry entry, weakly references the component
+        private WeakIdentityMap.Entry<Object, Binding> entry;
+        // message arguments supplier, null for plain text
+        private Supplier<Object[]> args;
+        // render state below is guarded by the binding
+        // compiled text setter, null if the component has none
+        private BiConsumer<Object, String> setter;
+        // if setter searched
+        private boolean resolved;
+        // last rendered text
+        private String text;
+        // if rendered at least once
+        private boolean rendered;
+        // count of claimed texts, detects renders racing on this binding
+        private long version;
+
+        private Binding(String key) {
+            this.key = key;
+        }
+    }
 }
@@ -1,26 +1,72 @@
 package io.github.evalexp;
 
 import io.github.evalexp.annotations.Frame;
-import io.github.evalexp.annotations.Initializer;
+import io.github.evalexp.annotations.I18N;
+import io.github.evalexp.util.ClassMetadata;
 import javax.swing.*;
-import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 
 /**
  * Framework context, use static method to control the context
  */
 public class Context {
-    private static final List<String> i18nSearchMethods = new ArrayList<>();
-    private static final Map<String, Container> containers = new HashMap<>();
-    private static String language = "zh_CN";
-    private static Locale locale;
-    private static final List<String> languageFileSearchPaths = new ArrayList<>();
+    private static final List<String> i18nSearchMethods = new CopyOnWriteArrayList<>();
+    private static final Map<String, Container> containers = new ConcurrentHashMap<>();
+    private static volatile String language = "zh_CN";
+    private static volatile Locale locale;
+    private static final List<String> languageFileSearchPaths = new CopyOnWriteArrayList<>();
+    // sized for an application switching between a few dozen language bundles without reloading
+    private static final LocaleCache localeCache = new LocaleCache(Math.max(1, Integer.getInteger("easyswing.localeCacheCapacity", 32)));
+    private static volatile RenderStats lastRenderStats;
+    // render scheduler state, guarded by renderLock
+    private static final Object renderLock = new Object();
+    private static boolean renderScheduled;
+    private static boolean fullRenderPending;
+    private static final Set<String> pendingRenderKeys = new LinkedHashSet<>();
+    // language file watcher of hot reload mode, null if disabled
+    private static LocaleWatcher localeWatcher;
+    private static final AtomicLong localeVersion = new AtomicLong();
+    // registered instrumentation listeners
+    private static final List<ContextListener> listeners = new CopyOnWriteArrayList<>();
+    // composite of the registered listeners, null if none so that nothing is measured
+    private static volatile ContextListener listener;
+    // JFR event listener, loaded reflectively since it needs the jdk.jfr module
+    private static final String JFR_LISTENER = "io.github.evalexp.JfrListener";
+    // closed frames kept for reuse by frame class, most recently closed last, guarded by the deque
+    private static final Map<Class<?>, Deque<Container>> framePool = new ConcurrentHashMap<>();
+    private static volatile Executor initializerExecutor = Context.defaultInitializerExecutor();
+    private static volatile Executor localeExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "easy-swing-locale-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     /**
      * create a new frame to show
@@ -31,48 +77,222 @@ public class Context {
     public static void newFrame(Class<?> clazz, String id, Object ...args) {
         if (clazz.isAnnotationPresent(Frame.class)) {
             try {
+                // reject invalid initializer dependencies before anything is built
+                Initializers.of(clazz);
+                if (Context.reuseFrame(clazz, id, args)) return;
                 Object object = clazz.getConstructor().newInstance();
                 if (!(object instanceof JFrame)) {
                     System.err.println("Frame must extend JFrame");
                 }
                 Container container = new Container(object, Context.i18nSearchMethods);
+                container.id = id;
                 Context.containers.put(id, container);
                 container.autoWired();
-                for (Method method : clazz.getDeclaredMethods()) {
-                    if (method.isAnnotationPresent(Initializer.class) && method.getParameterCount() == args.length) {
-                        int i = 0;
-                        for (; i < method.getParameterCount(); i++) {
-                            if (!method.getParameterTypes()[i].isAssignableFrom(args[i].getClass())) break;
-                        }
-                        if (i == args.length)
-                            method.invoke(object, args);
+                Context.initialize(object, id, container, false, args);
+                JFrame frame = (JFrame) object;
+                frame.setVisible(true);
+                frame.addComponentListener(new ComponentAdapter() {
+                    @Override
+                    public void componentShown(ComponentEvent e) {
+                        Context.updateStaleLookAndFeel(container);
                     }
-                }
-                ((JFrame) object).setVisible(true);
-                ((JFrame) object).addWindowListener(new WindowAdapter() {
+                });
+                boolean pooled = clazz.getAnnotation(Frame.class).pool() > 0;
+                frame.addWindowListener(new WindowAdapter() {
+                    @Override
+                    public void windowClosing(WindowEvent e) {
+                        // a pooled frame hidden on close is closed as well, after the hide
+                        if (pooled && frame.getDefaultCloseOperation() == WindowConstants.HIDE_ON_CLOSE)
+                            SwingUtilities.invokeLater(() -> Context.closeFrame(container));
+                    }
+
                     @Override
                     public void windowClosed(WindowEvent e) {
-                        Context.destroyFrame(id);
+                        Context.closeFrame(container);
                         super.windowClosed(e);
                     }
                 });
             } catch (Exception e) {
-                e.printStackTrace();
+                Context.frameFailed(clazz, id, e instanceof InvocationTargetException ? e.getCause() : e);
+            }
+        }
+    }
+
+    /**
+     * print the frame failure and report it to the listeners
+     * @param clazz frame class
+     * @param id frame id
+     * @param error cause
+     */
+    private static void frameFailed(Class<?> clazz, String id, Throwable error) {
+        error.printStackTrace();
+        ContextListener listener = Context.listener;
+        if (listener != null) listener.frameFailed(clazz, id, error);
+    }
+
+    /**
+     * create several frames to show, the non swing work, class metadata scanning, binder lookup, text setter compiling
+     * and locale loading, runs in parallel on the fork join pool, then the sections of the frame keys are loaded for a
+     * split bundle and the frames are built one by one on the EDT
+     * @param frames frame id -> frame class, built in iteration order
+     * @return per phase timing, locale, prepare, sections if split and build
+     */
+    public static StartupReport newFrames(Map<String, Class<?>> frames) {
+        StartupReport report = new StartupReport();
+        CompletableFuture<Void> locale = Context.locale != null ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.runAsync(() -> {
+                    long begin = System.nanoTime();
+                    Context.loadDefault();
+                    report.record("locale", System.nanoTime() - begin);
+                }, ForkJoinPool.commonPool());
+        long start = System.nanoTime();
+        List<String> searchMethods = new ArrayList<>(Context.i18nSearchMethods);
+        List<CompletableFuture<List<String>>> prepares = new ArrayList<>();
+        for (Class<?> clazz : frames.values()) {
+            if (!clazz.isAnnotationPresent(Frame.class)) continue;
+            prepares.add(CompletableFuture.supplyAsync(() -> Context.prepareFrame(clazz, searchMethods), ForkJoinPool.commonPool()));
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        for (CompletableFuture<List<String>> prepare : prepares) {
+            try {
+                keys.addAll(prepare.join());
+            } catch (CompletionException e) {
+                // reported as frame failure when the frame is built
+            }
+        }
+        report.record("prepare", System.nanoTime() - start);
+        try {
+            locale.join();
+        } catch (CompletionException e) {
+            e.printStackTrace();
+        }
+
+        Locale l = Context.locale;
+        long sections = System.nanoTime();
+        if (l != null && l.warm(keys)) report.record("sections", System.nanoTime() - sections);
+
+        long build = System.nanoTime();
+        Runnable builder = () -> frames.forEach((id, clazz) -> Context.newFrame(clazz, id));
+        if (SwingUtilities.isEventDispatchThread()) {
+            builder.run();
+        } else {
+            try {
+                SwingUtilities.invokeAndWait(builder);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (InvocationTargetException e) {
+                e.getCause().printStackTrace();
             }
         }
+        report.record("build", System.nanoTime() - build);
+        return report;
     }
 
     /**
-     * set swing LAF
+     * warm the reflection caches of the frame class and the text setters of its i18n field types
+     * @param clazz frame class
+     * @param searchMethods i18n text search methods
+     * @return i18n keys of the frame fields
+     */
+    private static List<String> prepareFrame(Class<?> clazz, List<String> searchMethods) {
+        List<String> keys = new ArrayList<>();
+        ClassMetadata metadata = ClassMetadata.of(clazz);
+        FrameBinders.find(clazz);
+        Initializers.of(clazz);
+        metadata.getFieldsByAnnotation(io.github.evalexp.annotations.Container.class);
+        for (Field field : metadata.getFieldsByAnnotation(I18N.class)) {
+            keys.add(field.getAnnotation(I18N.class).key());
+            metadata.getSetter(field);
+            metadata.getGetter(field);
+            ClassMetadata type = ClassMetadata.of(field.getType());
+            Method setter = type.getI18NMethod();
+            for (int i = 0; setter == null && i < searchMethods.size(); i++) {
+                setter = type.getMethod(searchMethods.get(i), String.class);
+            }
+            if (setter != null) type.getTextSetter(setter);
+        }
+        return keys;
+    }
+
+    /**
+     * invoke the frame initializers which accept the args, use the generated binder if present and no initializer is
+     * async or depends on others. async initializers and their dependents complete after return, see {@link Container#getInitialized()}
+     * @param frame target frame
+     * @param id frame id
+     * @param container frame container
+     * @param reopen if the pooled frame is reused, only the reopen initializers run
+     * @param args frame initializer args
+     * @throws Exception if a synchronous initializer failed
+     */
+    private static void initialize(Object frame, String id, Container container, boolean reopen, Object... args) throws Exception {
+        Initializers initializers = Initializers.of(frame.getClass());
+        FrameBinder<Object> binder = FrameBinders.find(frame.getClass());
+        if (binder != null && !initializers.isScheduled() && !reopen) {
+            binder.initialize(frame, (initializer, nanos) -> {
+                container.getInitializerReport().record(initializer, nanos);
+                ContextListener listener = Context.listener;
+                if (listener != null) listener.initializerInvoked(frame, initializer, nanos);
+            }, args);
+            return;
+        }
+        container.setInitialized(initializers.run(frame, args, reopen, Context.initializerExecutor, container.getInitializerReport(),
+                error -> Context.frameFailed(frame.getClass(), id, error)));
+    }
+
+    /**
+     * set the executor of async initializers, virtual threads by default when the runtime has them
+     * @param executor initializer executor
+     */
+    public static void setInitializerExecutor(Executor executor) {
+        if (executor == null) throw new IllegalArgumentException("executor must not be null");
+        Context.initializerExecutor = executor;
+    }
+
+    /**
+     * create the virtual thread per task executor if the runtime supports it, else a cached daemon thread pool
+     * @return initializer executor
+     */
+    private static Executor defaultInitializerExecutor() {
+        try {
+            return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, "easy-swing-initializer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * set swing LAF, the frames are updated on the EDT, waiting for it when called from another thread
      * @param lookAndFeel laf
      * @return success
      */
     public static boolean setLookAndFeel(LookAndFeel lookAndFeel) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            // the running async switch and the stale flags are EDT confined
+            boolean[] result = new boolean[1];
+            try {
+                SwingUtilities.invokeAndWait(() -> result[0] = Context.setLookAndFeel(lookAndFeel));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (InvocationTargetException e) {
+                e.getCause().printStackTrace();
+            }
+            return result[0];
+        }
         try {
             UIManager.setLookAndFeel(lookAndFeel);
+            LookAndFeelSwitch.cancel();
             for (Container container : Context.containers.values()) {
+                container.lookAndFeelStale = false;
                 SwingUtilities.updateComponentTreeUI((JFrame)container.getFrame());
             }
+            for (Container container : Context.pooledFrames()) {
+                container.lookAndFeelStale = false;
+                SwingUtilities.updateComponentTreeUI((JFrame) container.getFrame());
+            }
             return true;
         } catch (Exception e) {
             return false;
@@ -80,26 +300,285 @@ public class Context {
     }
 
     /**
-     * remove the frame, auto call when frame dispose
+     * set swing LAF without freezing the EDT, see {@link #setLookAndFeelAsync(LookAndFeel, long, BiConsumer)}, 8ms slices
+     * @param lookAndFeel laf
+     * @param progress called on the EDT after every slice with updated and total component count, the total grows as each frame starts, nullable
+     * @return future completed when the showing frames are updated
+     */
+    public static CompletableFuture<Void> setLookAndFeelAsync(LookAndFeel lookAndFeel, BiConsumer<Integer, Integer> progress) {
+        return Context.setLookAndFeelAsync(lookAndFeel, 8, progress);
+    }
+
+    /**
+     * set swing LAF without freezing the EDT, the component trees of the showing frames are updated in time bounded slices,
+     * the active frame first, and the EDT handles input and painting between the slices.
+     * hidden and pooled frames are updated at once when they are shown next, a newer switch cancels the running one
+     * @param lookAndFeel laf
+     * @param sliceMillis max time of one EDT slice
+     * @param progress called on the EDT after every slice with updated and total component count, the total grows as each frame starts, nullable
+     * @return future completed when the showing frames are updated, completed exceptionally if the laf could not be set
+     */
+    public static CompletableFuture<Void> setLookAndFeelAsync(LookAndFeel lookAndFeel, long sliceMillis, BiConsumer<Integer, Integer> progress) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        Runnable start = () -> {
+            try {
+                UIManager.setLookAndFeel(lookAndFeel);
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+                return;
+            }
+            List<JFrame> showing = new ArrayList<>();
+            for (Container container : Context.containers.values()) {
+                JFrame frame = (JFrame) container.getFrame();
+                if (frame == null) continue;
+                container.lookAndFeelStale = !frame.isShowing();
+                if (frame.isShowing()) showing.add(frame);
+            }
+            for (Container container : Context.pooledFrames()) container.lookAndFeelStale = true;
+            // stable, the active frame first then registration order
+            showing.sort(Comparator.comparing(frame -> !frame.isActive()));
+            LookAndFeelSwitch.start(showing, TimeUnit.MILLISECONDS.toNanos(sliceMillis), progress, future);
+        };
+        if (SwingUtilities.isEventDispatchThread()) start.run();
+        else SwingUtilities.invokeLater(start);
+        return future;
+    }
+
+    /**
+     * update the frame skipped by a look and feel switch while hidden
+     * @param container frame container
+     */
+    private static void updateStaleLookAndFeel(Container container) {
+        if (!container.lookAndFeelStale) return;
+        container.lookAndFeelStale = false;
+        SwingUtilities.updateComponentTreeUI((JFrame) container.getFrame());
+    }
+
+    /**
+     * get a snapshot of the pooled frames
+     * @return pooled frame containers
+     */
+    private static List<Container> pooledFrames() {
+        List<Container> pooled = new ArrayList<>();
+        for (Deque<Container> pool : Context.framePool.values()) {
+            synchronized (pool) {
+                pooled.addAll(pool);
+            }
+        }
+        return pooled;
+    }
+
+    /**
+     * remove the frame, auto call when frame dispose. a frame of pooled class is hidden and kept for reuse if the pool is not full
      * @param id frame id
      */
     public static void destroyFrame(String id) {
-        Context.containers.get(id).clear();
-        Context.containers.remove(id);
+        Container container = Context.containers.remove(id);
+        if (container == null) return;
+        container.id = null;
+        Context.releaseFrame(container);
+    }
+
+    /**
+     * remove the closed frame if it is still registered under its id
+     * @param container frame container
+     */
+    private static void closeFrame(Container container) {
+        String id = container.id;
+        if (id == null || !Context.containers.remove(id, container)) return;
+        container.id = null;
+        Context.releaseFrame(container);
     }
 
     /**
-     * update frame ui tree
+     * pool the removed frame, or clear it and dispose it if refused so that a frame hidden on close does not leak
+     * @param container frame container
+     */
+    private static void releaseFrame(Container container) {
+        if (Context.poolFrame(container)) return;
+        Object frame = container.getFrame();
+        container.clear();
+        if (!(frame instanceof JFrame)) return;
+        Runnable dispose = () -> {
+            if (((JFrame) frame).isDisplayable()) ((JFrame) frame).dispose();
+        };
+        if (SwingUtilities.isEventDispatchThread()) dispose.run();
+        else SwingUtilities.invokeLater(dispose);
+    }
+
+    /**
+     * hide and reset the frame then keep it for reuse
+     * @param container frame container
+     * @return if pooled
+     */
+    private static boolean poolFrame(Container container) {
+        Object frame = container.getFrame();
+        if (frame == null) return false;
+        Frame annotation = frame.getClass().getAnnotation(Frame.class);
+        if (annotation == null || annotation.pool() <= 0) return false;
+        Deque<Container> pool = Context.framePool.computeIfAbsent(frame.getClass(), k -> new ArrayDeque<>());
+        synchronized (pool) {
+            if (pool.size() >= annotation.pool()) return false;
+        }
+        // deferred initializers of the closed frame must not act on it once reused
+        container.getInitialized().cancel(false);
+        try {
+            if (frame instanceof JFrame) ((JFrame) frame).setVisible(false);
+            Initializers.of(frame.getClass()).reset(frame);
+        } catch (Exception e) {
+            Context.frameFailed(frame.getClass(), null, e instanceof InvocationTargetException ? e.getCause() : e);
+            return false;
+        }
+        synchronized (pool) {
+            if (pool.size() >= annotation.pool()) return false;
+            pool.addLast(container);
+        }
+        return true;
+    }
+
+    /**
+     * reuse the most recently closed frame of the class, re-render it against the current locale,
+     * run the reopen initializers with the new args and show it, a frame whose initializer failed is dropped
+     * @param clazz frame class
+     * @param id frame id
+     * @param args frame initializer args
+     * @return if a pooled frame was reused
+     * @throws Exception if a synchronous initializer failed
+     */
+    private static boolean reuseFrame(Class<?> clazz, String id, Object... args) throws Exception {
+        Deque<Container> pool = Context.framePool.get(clazz);
+        if (pool == null) return false;
+        Container container;
+        synchronized (pool) {
+            container = pool.pollLast();
+        }
+        if (container == null) return false;
+        Object frame = container.getFrame();
+        container.id = id;
+        Context.containers.put(id, container);
+        container.render();
+        try {
+            Context.initialize(frame, id, container, true, args);
+        } catch (Exception e) {
+            Context.containers.remove(id, container);
+            container.id = null;
+            container.clear();
+            ((JFrame) frame).dispose();
+            throw e;
+        }
+        Context.updateStaleLookAndFeel(container);
+        ((JFrame) frame).setVisible(true);
+        return true;
+    }
+
+    /**
+     * get the count of closed frames kept for reuse
+     * @param clazz frame class
+     * @return pooled frame count
+     */
+    public static int getPooledFrameCount(Class<?> clazz) {
+        Deque<Container> pool = Context.framePool.get(clazz);
+        if (pool == null) return 0;
+        synchronized (pool) {
+            return pool.size();
+        }
+    }
+
+    /**
+     * dispose all pooled frames
+     */
+    public static void clearFramePool() {
+        for (Deque<Container> pool : Context.framePool.values()) {
+            List<Container> pooled;
+            synchronized (pool) {
+                pooled = new ArrayList<>(pool);
+                pool.clear();
+            }
+            for (Container container : pooled) {
+                Object frame = container.getFrame();
+                container.clear();
+                if (frame instanceof JFrame) ((JFrame) frame).dispose();
+            }
+        }
+    }
+
+    /**
+     * schedule a render of the i18n text of all frames, LAF is not reinstalled since only the text changed
      */
     private static void updateTreeUI() {
+        Context.scheduleRender(null);
+    }
+
+    /**
+     * schedule a render of only the components bound to the keys in all frames, for example after a message patch
+     * @param keys changed i18n keys
+     */
+    public static void updateKeys(Collection<String> keys) {
+        Context.scheduleRender(keys);
+    }
+
+    /**
+     * mark the frames dirty, all requests before the next EDT tick are coalesced into one render pass
+     * @param keys changed i18n keys, null to render all components
+     */
+    private static void scheduleRender(Collection<String> keys) {
+        synchronized (Context.renderLock) {
+            if (keys == null) {
+                Context.fullRenderPending = true;
+                Context.pendingRenderKeys.clear();
+            } else if (!Context.fullRenderPending) {
+                Context.pendingRenderKeys.addAll(keys);
+            }
+            if (Context.renderScheduled) return;
+            Context.renderScheduled = true;
+        }
+        SwingUtilities.invokeLater(Context::flushRender);
+    }
+
+    /**
+     * run the pending render pass now on the EDT, a call from another thread waits for the EDT to run it
+     * @return render statistics of all frames, null if nothing pending
+     */
+    public static RenderStats flushRender() {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            RenderStats[] stats = new RenderStats[1];
+            try {
+                SwingUtilities.invokeAndWait(() -> stats[0] = Context.flushRender());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (InvocationTargetException e) {
+                e.getCause().printStackTrace();
+            }
+            return stats[0];
+        }
+        boolean full;
+        List<String> keys;
+        synchronized (Context.renderLock) {
+            full = Context.fullRenderPending;
+            keys = new ArrayList<>(Context.pendingRenderKeys);
+            Context.fullRenderPending = false;
+            Context.pendingRenderKeys.clear();
+            Context.renderScheduled = false;
+        }
+        if (!full && keys.isEmpty()) return null;
+        RenderStats stats = new RenderStats();
         for (Container container : Context.containers.values()) {
             try {
-                container.render();
-                SwingUtilities.updateComponentTreeUI((Component) container.getFrame());
+                stats.add(full ? container.render() : container.render(keys));
             } catch (Exception e) {
                 e.printStackTrace();
             }
         }
+        Context.lastRenderStats = stats;
+        return stats;
+    }
+
+    /**
+     * get the statistics of last locale render pass
+     * @return render statistics, null if never rendered
+     */
+    public static RenderStats getLastRenderStats() {
+        return Context.lastRenderStats;
     }
 
     /**
@@ -155,14 +634,218 @@ public class Context {
      * @param force force set current locale
      */
     private static void changeLocale(String locale, boolean force) {
-        Locale l = new Locale(locale, Context.languageFileSearchPaths);
+        Locale l = Context.localeCache.get(locale, Context.languageFileSearchPaths, Context.language);
         if (force || l.isLoaded()){
+            Context.localeVersion.incrementAndGet();
             Context.locale = l;
             Context.updateTreeUI();
         }
     }
 
+    /**
+     * change locale in background, the language file is loaded on the locale executor,
+     * then the locale is swapped and the frames are rendered once on the EDT,
+     * until then the current locale stays visible to all readers
+     * @param locale target locale
+     * @return future of the new locale, completed exceptionally if the language file could not be loaded,
+     * cancelled if a newer locale change superseded it so the locale was never published
+     */
+    public static CompletableFuture<Locale> changeLocaleAsync(String locale) {
+        long version = Context.localeVersion.incrementAndGet();
+        List<String> searchPaths = new ArrayList<>(Context.languageFileSearchPaths);
+        String defaultLanguage = Context.language;
+        CompletableFuture<Locale> future = new CompletableFuture<>();
+        CompletableFuture.supplyAsync(() -> Context.localeCache.get(locale, searchPaths, defaultLanguage), Context.localeExecutor)
+                .whenComplete((l, e) -> {
+                    if (e != null) {
+                        future.completeExceptionally(e);
+                    } else if (!l.isLoaded()) {
+                        future.completeExceptionally(new IllegalArgumentException("language file not found: " + locale));
+                    } else {
+                        SwingUtilities.invokeLater(() -> {
+                            // a newer change wins, stale loads would not be published
+                            if (Context.localeVersion.get() != version) {
+                                future.cancel(false);
+                                return;
+                            }
+                            Context.locale = l;
+                            Context.updateTreeUI();
+                            future.complete(l);
+                        });
+                    }
+                });
+        return future;
+    }
+
+    /**
+     * set the executor used to load language files for {@link #changeLocaleAsync(String)}
+     * @param executor locale loader executor
+     */
+    public static void setLocaleExecutor(Executor executor) {
+        if (executor == null) throw new IllegalArgumentException("executor must not be null");
+        Context.localeExecutor = executor;
+    }
+
+    /**
+     * enable hot reload of language files, for development and translation, only filesystem backed search paths are watched.
+     * on change the modified language is reloaded, diffed against the current locale, and only components of changed keys are rendered
+     * @param debounceMillis quiet time after the last change before reloading, absorbs editor save storms
+     * @return if any search path is watched
+     */
+    public static synchronized boolean enableHotReload(long debounceMillis) {
+        Context.disableHotReload();
+        try {
+            Context.localeWatcher = new LocaleWatcher(new ArrayList<>(Context.languageFileSearchPaths), debounceMillis, Context::reloadLanguages);
+            return Context.localeWatcher.isWatching();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * enable hot reload of language files with 300ms debounce
+     * @return if any search path is watched
+     */
+    public static boolean enableHotReload() {
+        return Context.enableHotReload(300);
+    }
+
+    /**
+     * disable hot reload of language files
+     */
+    public static synchronized void disableHotReload() {
+        if (Context.localeWatcher == null) return;
+        try {
+            Context.localeWatcher.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        Context.localeWatcher = null;
+    }
+
+    /**
+     * reload the changed languages, only their files are parsed again, swap the current locale if it depends on them and render the changed keys
+     * @param languages changed languages
+     */
+    private static void reloadLanguages(Set<String> languages) {
+        Context.localeCache.reload(languages);
+        Locale current = Context.locale;
+        if (current == null || Collections.disjoint(current.getFallbackChain(), languages)) return;
+        long version = Context.localeVersion.get();
+        Locale fresh = Context.localeCache.get(current.getLanguage(), Context.languageFileSearchPaths, Context.language);
+        if (fresh == current || !fresh.isLoaded()) return;
+        Set<String> changed = current.diff(fresh);
+        SwingUtilities.invokeLater(() -> {
+            // a locale change in between wins
+            if (Context.localeVersion.get() != version || Context.locale != current) return;
+            Context.locale = fresh;
+            Context.updateKeys(changed);
+        });
+    }
+
+    /**
+     * load locales into the cache ahead of time, so that switching to them costs no I/O
+     * @param locales target locales
+     * @return loaded locale count
+     */
+    public static int preloadLocales(String... locales) {
+        int count = 0;
+        for (String locale : locales) {
+            if (Context.localeCache.get(locale, Context.languageFileSearchPaths, Context.language).isLoaded()) count++;
+        }
+        return count;
+    }
+
+    /**
+     * evict the cached locale, next change to it would reload the language file
+     * @param locale target locale
+     * @return if any cached locale evicted
+     */
+    public static boolean evictLocale(String locale) {
+        return Context.localeCache.evict(locale) > 0;
+    }
+
+    /**
+     * set the max count of cached locales, set it before the first locale change to keep every language of the
+     * application cached, also settable with -Deasyswing.localeCacheCapacity, 32 by default
+     * @param capacity max cached locale count
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public static void setLocaleCacheCapacity(int capacity) {
+        Context.localeCache.setCapacity(capacity);
+    }
+
+    /**
+     * get the locale cache, for capacity tuning and hit/miss statistics
+     * @return locale cache
+     */
+    public static LocaleCache getLocaleCache() {
+        return Context.localeCache;
+    }
+
+    /**
+     * register an instrumentation listener, timings are only measured while any listener is registered
+     * @param listener target listener
+     */
+    public static synchronized void addListener(ContextListener listener) {
+        if (listener == null) throw new IllegalArgumentException("listener must not be null");
+        Context.listeners.add(listener);
+        Context.updateListener();
+    }
+
+    /**
+     * unregister the instrumentation listener
+     * @param listener target listener
+     * @return if the listener was registered
+     */
+    public static synchronized boolean removeListener(ContextListener listener) {
+        boolean removed = Context.listeners.remove(listener);
+        Context.updateListener();
+        return removed;
+    }
+
+    /**
+     * emit the framework events to Java Flight Recorder, the text setter event is disabled by default
+     * @return if JFR is available
+     */
+    public static synchronized boolean enableJfrEvents() {
+        for (ContextListener l : Context.listeners) {
+            if (l.getClass().getName().equals(JFR_LISTENER)) return true;
+        }
+        ContextListener jfrListener;
+        try {
+            // compiled separately against the JFR API, see the jfr source set
+            Class.forName("jdk.jfr.Event");
+            jfrListener = (ContextListener) Class.forName(JFR_LISTENER).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return false;
+        }
+        Context.addListener(jfrListener);
+        return true;
+    }
+
+    /**
+     * rebuild the composite listener
+     */
+    private static void updateListener() {
+        ContextListener[] all = Context.listeners.toArray(new ContextListener[0]);
+        Context.listener = all.length == 0 ? null : new ContextListeners(all);
+    }
+
+    /**
+     * get the composite instrumentation listener
+     * @return listener, null if none registered
+     */
+    static ContextListener listener() {
+        return Context.listener;
+    }
+
     static {
+        ClassMetadata.installScanHook((clazz, nanos) -> {
+            ContextListener listener = Context.listener;
+            if (listener != null) listener.classScanned(clazz, nanos);
+        }, () -> Context.listener != null);
         addI18nSearchMethod("setText");
         addLanguageFileSearchPath("languages");
     }
@@ -0,0 +1,72 @@
+package io.github.evalexp;
+
+/**
+ * Instrumentation listener of the framework, register with {@link Context#addListener(ContextListener)}.
+ * All methods are optional, timings are in nanoseconds. Callbacks run on the thread doing the work,
+ * mostly the EDT, so they should be cheap.
+ * When no listener is registered nothing is measured
+ */
+public interface ContextListener {
+    /**
+     * called after a locale is loaded and parsed, cached locales are not reported
+     * @param language target language
+     * @param loaded if any language file found
+     * @param nanos load time
+     */
+    default void localeLoaded(String language, boolean loaded, long nanos) {}
+
+    /**
+     * called after the reflection metadata of a class is scanned, once per class
+     * @param clazz scanned class
+     * @param nanos scan time
+     */
+    default void classScanned(Class<?> clazz, long nanos) {}
+
+    /**
+     * called after the i18n components and containers of a frame are injected, before the first render
+     * @param frame target frame
+     * @param components bound component count
+     * @param nanos injection time
+     */
+    default void frameWired(Object frame, int components, long nanos) {}
+
+    /**
+     * called after a frame initializer is invoked
+     * @param frame target frame
+     * @param initializer initializer method name
+     * @param nanos invocation time
+     */
+    default void initializerInvoked(Object frame, String initializer, long nanos) {}
+
+    /**
+     * called after a render pass of a frame
+     * @param frame target frame
+     * @param stats render statistics of the pass
+     * @param nanos pass time
+     */
+    default void renderPass(Object frame, RenderStats stats, long nanos) {}
+
+    /**
+     * called after a text setter of a component is called
+     * @param component target component
+     * @param key i18n key
+     * @param nanos setter time
+     */
+    default void setterCalled(Object component, String key, long nanos) {}
+
+    /**
+     * called the first time a key missing in the whole fallback chain is looked up in a locale,
+     * see {@link Locale#getMissingKeys()} for the keys and {@link Locale#getMissingCount()} for all lookups
+     * @param locale locale looked up
+     * @param key missing i18n key
+     */
+    default void textMissing(Locale locale, String key) {}
+
+    /**
+     * called when a frame could not be created, the error is printed before the listeners are called
+     * @param clazz frame class
+     * @param id frame id
+     * @param error cause
+     */
+    default void frameFailed(Class<?> clazz, String id, Throwable error) {}
+}
@@ -0,0 +1,68 @@
+package io.github.evalexp;
+
+import java.util.function.Consumer;
+
+/**
+ * Fan out the events to several listeners, a failed listener would not stop the others
+ */
+final class ContextListeners implements ContextListener {
+    private final ContextListener[] listeners;
+
+    ContextListeners(ContextListener[] listeners) {
+        this.listeners = listeners;
+    }
+
+    @Override
+    public void localeLoaded(String language, boolean loaded, long nanos) {
+        dispatch(listener -> listener.localeLoaded(language, loaded, nanos));
+    }
+
+    @Override
+    public void classScanned(Class<?> clazz, long nanos) {
+        dispatch(listener -> listener.classScanned(clazz, nanos));
+    }
+
+    @Override
+    public void frameWired(Object frame, int components, long nanos) {
+        dispatch(listener -> listener.frameWired(frame, components, nanos));
+    }
+
+    @Override
+    public void initializerInvoked(Object frame, String initializer, long nanos) {
+        dispatch(listener -> listener.initializerInvoked(frame, initializer, nanos));
+    }
+
+    @Override
+    public void renderPass(Object frame, RenderStats stats, long nanos) {
+        dispatch(listener -> listener.renderPass(frame, stats, nanos));
+    }
+
+    @Override
+    public void setterCalled(Object component, String key, long nanos) {
+        dispatch(listener -> listener.setterCalled(component, key, nanos));
+    }
+
+    @Override
+    public void textMissing(Locale locale, String key) {
+        dispatch(listener -> listener.textMissing(locale, key));
+    }
+
+    @Override
+    public void frameFailed(Class<?> clazz, String id, Throwable error) {
+        dispatch(listener -> listener.frameFailed(clazz, id, error));
+    }
+
+    /**
+     * call every listener, a failed one is reported and skipped
+     * @param event listener call
+     */
+    private void dispatch(Consumer<ContextListener> event) {
+        for (ContextListener listener : listeners) {
+            try {
+                event.accept(listener);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
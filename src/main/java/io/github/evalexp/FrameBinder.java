@@ -0,0 +1,27 @@
+package io.github.evalexp;
+
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Compile time generated frame wiring, replace the reflection based auto wire and initializer dispatch.
+ * Generated by the easy-swing annotation processor as {@code <FrameClass>_FrameBinder} in the frame's package,
+ * add the io.github.evalexp:easy-swing-processor artifact to the annotation processor path to enable it
+ * @param <T> type of the frame
+ */
+public interface FrameBinder<T> {
+    /**
+     * inject the @I18N and @Container fields and register the i18n components to the container
+     * @param frame target frame
+     * @param container frame container
+     */
+    void bind(T frame, Container container);
+
+    /**
+     * invoke the @Initializer methods which accept the args
+     * @param frame target frame
+     * @param timing receive the method name and the invocation time of each initializer invoked
+     * @param args frame initializer args
+     * @throws Exception if initializer failed
+     */
+    void initialize(T frame, ObjLongConsumer<String> timing, Object... args) throws Exception;
+}
@@ -0,0 +1,44 @@
+package io.github.evalexp;
+
+import java.util.Optional;
+
+/**
+ * Generated frame binder lookup, cached per frame class
+ */
+final class FrameBinders {
+    private static final ClassValue<Optional<FrameBinder<Object>>> BINDERS = new ClassValue<Optional<FrameBinder<Object>>>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected Optional<FrameBinder<Object>> computeValue(Class<?> type) {
+            try {
+                Class<?> binderClass = Class.forName(binderName(type), true, type.getClassLoader());
+                if (!FrameBinder.class.isAssignableFrom(binderClass)) return Optional.empty();
+                return Optional.of((FrameBinder<Object>) binderClass.getConstructor().newInstance());
+            } catch (ReflectiveOperationException | LinkageError e) {
+                return Optional.empty();
+            }
+        }
+    };
+
+    private FrameBinders() {}
+
+    /**
+     * get the generated binder name of the frame class
+     * @param frameClass frame class
+     * @return binder class name
+     */
+    static String binderName(Class<?> frameClass) {
+        String name = frameClass.getName();
+        int index = name.lastIndexOf('.');
+        return name.substring(0, index + 1) + name.substring(index + 1).replace('$', '_') + "_FrameBinder";
+    }
+
+    /**
+     * find the generated binder of the frame class
+     * @param frameClass frame class
+     * @return binder if generated, else null
+     */
+    static FrameBinder<Object> find(Class<?> frameClass) {
+        return BINDERS.get(frameClass).orElse(null);
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.evalexp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Key index over the slots of other tables, key -> (table, slot), built once at load.
+ * A lookup is a single probe whatever the number of tables, and the texts are still decoded by their own table on access
+ */
+final class IndexedMessageTable implements MessageTable {
+    // key -> position of the entry
+    private final Map<String, Integer> index;
+    // entries by position
+    private final String[] keys;
+    private final MessageTable[] owners;
+    private final int[] slots;
+
+    private IndexedMessageTable(Map<String, Integer> index, String[] keys, MessageTable[] owners, int[] slots) {
+        this.index = index;
+        this.keys = keys;
+        this.owners = owners;
+        this.slots = slots;
+    }
+
+    /**
+     * index the tables, the first table containing the key wins
+     * @param tables tables, highest priority first
+     * @return merged table
+     */
+    static IndexedMessageTable merge(List<MessageTable> tables) {
+        Builder builder = new Builder();
+        for (MessageTable table : tables) table.forEachKey((key, slot) -> builder.add(key, table, slot));
+        return builder.build();
+    }
+
+    @Override
+    public String get(String key) {
+        Integer position = index.get(key);
+        return position != null ? owners[position].text(slots[position]) : null;
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public void forEach(BiConsumer<String, String> action) {
+        for (int i = 0; i < keys.length; i++) action.accept(keys[i], owners[i].text(slots[i]));
+    }
+
+    @Override
+    public void forEachKey(ObjIntConsumer<String> action) {
+        for (int i = 0; i < keys.length; i++) action.accept(keys[i], i);
+    }
+
+    @Override
+    public String text(int slot) {
+        return owners[slot].text(slots[slot]);
+    }
+
+    /**
+     * collect the entries of an index, a key added again is ignored
+     */
+    static final class Builder {
+        private final Map<String, Integer> index = new HashMap<>();
+        private final List<String> keys = new ArrayList<>();
+        private final List<MessageTable> owners = new ArrayList<>();
+        private int[] slots = new int[16];
+
+        /**
+         * add the entry unless the key is present
+         * @param key text key
+         * @param owner table holding the text
+         * @param slot slot of the text in the owner
+         */
+        void add(String key, MessageTable owner, int slot) {
+            if (index.putIfAbsent(key, keys.size()) != null) return;
+            if (keys.size() == slots.length) slots = Arrays.copyOf(slots, slots.length * 2);
+            slots[keys.size()] = slot;
+            keys.add(key);
+            owners.add(owner);
+        }
+
+        /**
+         * build the table
+         * @return indexed table
+         */
+        IndexedMessageTable build() {
+            return new IndexedMessageTable(index, keys.toArray(new String[0]), owners.toArray(new MessageTable[0]), Arrays.copyOf(slots, keys.size()));
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package io.github.evalexp;
+
+import io.github.evalexp.annotations.Initializer;
+import io.github.evalexp.annotations.Reset;
+import io.github.evalexp.util.ClassMetadata;
+
+import javax.swing.*;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Initializer plan of a frame class, ordered once and cached
+ */
+final class Initializers {
+    private static final ClassValue<Initializers> PLANS = new ClassValue<Initializers>() {
+        @Override
+        protected Initializers computeValue(Class<?> type) {
+            return new Initializers(type);
+        }
+    };
+    private static final Executor EDT = SwingUtilities::invokeLater;
+
+    // initializers sorted by order then name
+    private final List<Method> methods;
+    // if any initializer is async or depends on others, so the generated binder could not run them
+    private final boolean scheduled;
+    // @Reset methods
+    private final List<Method> resets;
+
+    private Initializers(Class<?> type) {
+        List<Method> methods = new ArrayList<>(ClassMetadata.of(type).getDeclaredMethodsByAnnotation(Initializer.class));
+        methods.sort(Comparator.comparingInt((Method m) -> m.getAnnotation(Initializer.class).order()).thenComparing(Method::getName));
+        // overloads share the name, a dependency on the name waits for all of them which run
+        Map<String, List<Method>> names = new HashMap<>();
+        for (Method method : methods) names.computeIfAbsent(method.getName(), k -> new ArrayList<>()).add(method);
+        boolean scheduled = false;
+        for (Method method : methods) {
+            Initializer initializer = method.getAnnotation(Initializer.class);
+            for (String dependency : initializer.dependsOn()) {
+                if (!names.containsKey(dependency))
+                    throw new IllegalArgumentException("initializer " + method.getName() + " of " + type.getName()
+                            + " depends on unknown initializer " + dependency);
+            }
+            scheduled |= initializer.async() || initializer.dependsOn().length > 0;
+        }
+        Set<String> visited = new HashSet<>();
+        for (String name : names.keySet()) checkCycle(type, name, names, new ArrayList<>(), visited);
+        this.methods = Collections.unmodifiableList(methods);
+        this.scheduled = scheduled;
+        List<Method> resets = new ArrayList<>(ClassMetadata.of(type).getDeclaredMethodsByAnnotation(Reset.class));
+        for (Method method : resets) {
+            if (method.getParameterCount() > 0)
+                throw new IllegalArgumentException("@Reset method " + method.getName() + " of " + type.getName() + " must not have parameters");
+        }
+        resets.sort(Comparator.comparing(Method::getName));
+        this.resets = Collections.unmodifiableList(resets);
+    }
+
+    /**
+     * get the plan of the frame class, validated on first call
+     * @param type frame class
+     * @return cached plan
+     * @throws IllegalArgumentException if an initializer depends on an unknown one, the dependencies form a cycle
+     * or a @Reset method has parameters
+     */
+    static Initializers of(Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    /**
+     * walk the dependencies of the initializer name depth first, the dependencies of its overloads included
+     * @param type frame class
+     * @param name initializer name
+     * @param initializers initializers by name
+     * @param path initializers being walked, in dependency order
+     * @param visited initializers whose dependencies are known to be acyclic
+     * @throws IllegalArgumentException if the dependencies form a cycle
+     */
+    private static void checkCycle(Class<?> type, String name, Map<String, List<Method>> initializers, List<String> path, Set<String> visited) {
+        if (visited.contains(name)) return;
+        int index = path.indexOf(name);
+        if (index >= 0) {
+            List<String> cycle = new ArrayList<>(path.subList(index, path.size()));
+            cycle.add(name);
+            throw new IllegalArgumentException("initializer dependency cycle in " + type.getName() + ": " + String.join(" -> ", cycle));
+        }
+        path.add(name);
+        for (Method method : initializers.get(name)) {
+            for (String dependency : method.getAnnotation(Initializer.class).dependsOn()) {
+                checkCycle(type, dependency, initializers, path, visited);
+            }
+        }
+        path.remove(path.size() - 1);
+        visited.add(name);
+    }
+
+    /**
+     * test if any initializer is async or depends on others
+     * @return if scheduled
+     */
+    boolean isScheduled() {
+        return scheduled;
+    }
+
+    /**
+     * run the initializers which accept the args, ready synchronous initializers run on the calling thread before return,
+     * the others when their dependencies complete, deferred synchronous ones on the EDT
+     * @param frame target frame
+     * @param args frame initializer args
+     * @param reopen if the pooled frame is reused, only the reopen initializers run
+     * @param executor async initializer executor
+     * @param report per initializer timing
+     * @param onError called with the cause when a deferred initializer failed, its dependents are skipped
+     * @return future completed when all initializers complete, cancelling it skips the deferred initializers not started yet
+     * @throws Exception if a synchronous initializer failed before return
+     */
+    CompletableFuture<Void> run(Object frame, Object[] args, boolean reopen, Executor executor, StartupReport report, Consumer<Throwable> onError) throws Exception {
+        List<Method> pending = new ArrayList<>();
+        for (Method method : methods) {
+            if (accepts(method, args) && (!reopen || method.getAnnotation(Initializer.class).reopen())) pending.add(method);
+        }
+        // keyed by method, overloaded initializers share the name
+        Map<Method, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        while (!pending.isEmpty()) {
+            Method next = null;
+            for (Method method : pending) {
+                if (isReady(method, pending)) {
+                    next = method;
+                    break;
+                }
+            }
+            // cycles are rejected when the plan is built
+            if (next == null) throw new IllegalStateException("initializer dependency cycle in " + frame.getClass().getName());
+            pending.remove(next);
+            Initializer initializer = next.getAnnotation(Initializer.class);
+            List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+            boolean ready = true;
+            List<String> names = Arrays.asList(initializer.dependsOn());
+            for (Map.Entry<Method, CompletableFuture<Void>> entry : futures.entrySet()) {
+                if (!names.contains(entry.getKey().getName())) continue;
+                CompletableFuture<Void> future = entry.getValue();
+                dependencies.add(future);
+                ready &= future.isDone() && !future.isCompletedExceptionally();
+            }
+            Method method = next;
+            CompletableFuture<Void> future;
+            if (!initializer.async() && ready) {
+                Object result = invoke(frame, method, args, report);
+                if (result instanceof Runnable) ((Runnable) result).run();
+                future = CompletableFuture.completedFuture(null);
+            } else {
+                future = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[0]))
+                        .thenApplyAsync(ignored -> {
+                            if (done.isCancelled()) throw new CancellationException();
+                            try {
+                                return invoke(frame, method, args, report);
+                            } catch (Exception e) {
+                                Throwable cause = e instanceof InvocationTargetException ? e.getCause() : e;
+                                onError.accept(cause);
+                                throw new CompletionException(cause);
+                            }
+                        }, initializer.async() ? executor : EDT)
+                        .thenCompose(result -> result instanceof Runnable ? CompletableFuture.runAsync(() -> {
+                            if (done.isCancelled()) throw new CancellationException();
+                            try {
+                                ((Runnable) result).run();
+                            } catch (RuntimeException e) {
+                                onError.accept(e);
+                                throw e;
+                            }
+                        }, EDT) : CompletableFuture.completedFuture(null));
+            }
+            futures.put(method, future);
+        }
+        CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).whenComplete((ignored, error) -> {
+            if (error != null) done.completeExceptionally(error);
+            else done.complete(null);
+        });
+        return done;
+    }
+
+    /**
+     * run the @Reset methods, when the closed frame is returned to the pool
+     * @param frame target frame
+     * @throws Exception if reset failed
+     */
+    void reset(Object frame) throws Exception {
+        for (Method method : resets) method.invoke(frame);
+    }
+
+    /**
+     * test if no initializer the method depends on is still pending, dependencies skipped since not accepting the args are satisfied
+     * @param method initializer
+     * @param pending initializers which would run and are not scheduled yet
+     * @return if ready to schedule
+     */
+    private static boolean isReady(Method method, List<Method> pending) {
+        List<String> dependencies = Arrays.asList(method.getAnnotation(Initializer.class).dependsOn());
+        for (Method other : pending) {
+            if (dependencies.contains(other.getName())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * test if the initializer accepts the args, a primitive parameter accepts its wrapper and a null arg matches nothing,
+     * the same instanceof rule as the generated binders
+     * @param method initializer
+     * @param args frame initializer args
+     * @return if accepts
+     */
+    private static boolean accepts(Method method, Object[] args) {
+        if (method.getParameterCount() != args.length) return false;
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < args.length; i++) {
+            if (!MethodType.methodType(parameterTypes[i]).wrap().returnType().isInstance(args[i])) return false;
+        }
+        return true;
+    }
+
+    /**
+     * invoke the initializer and record its time
+     * @param frame target frame
+     * @param method initializer
+     * @param args frame initializer args
+     * @param report per initializer timing
+     * @return initializer result
+     * @throws Exception if initializer failed
+     */
+    private static Object invoke(Object frame, Method method, Object[] args, StartupReport report) throws Exception {
+        long start = System.nanoTime();
+        Object result = method.invoke(frame, args);
+        long nanos = System.nanoTime() - start;
+        report.record(method.getName(), nanos);
+        ContextListener listener = Context.listener();
+        if (listener != null) listener.initializerInvoked(frame, method.getName(), nanos);
+        return result;
+    }
+}
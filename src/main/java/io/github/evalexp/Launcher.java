@@ -1,5 +1,8 @@
 package io.github.evalexp;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Swing UI Framework entrance
  */
@@ -14,6 +17,23 @@ public class Launcher {
         Context.newFrame(clazz, "mainFrame");
     }
 
+    /**
+     * launch several frames at once, the first one is the main frame, others use their class name as id,
+     * followed by #index if the class is launched more than once.
+     * frames are prepared in parallel and built on the EDT, see {@link Context#newFrames(Map)}
+     * @param classes frame classes, must extend JFrame
+     * @return per phase startup timing
+     */
+    public static StartupReport launchAll(Class<?>... classes) {
+        Map<String, Class<?>> frames = new LinkedHashMap<>();
+        for (int i = 0; i < classes.length; i++) {
+            String id = i == 0 ? "mainFrame" : classes[i].getName();
+            if (frames.containsKey(id)) id += "#" + i;
+            frames.put(id, classes[i]);
+        }
+        return Context.newFrames(frames);
+    }
+
     /**
      * launch the application with specific language
      * @param clazz entrance class, must extend JFrame
@@ -1,18 +1,42 @@
 package io.github.evalexp;
 
-import org.yaml.snakeyaml.Yaml;
-
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 
 /**
  * Locale object for text getting
  */
 public class Locale {
-    private HashMap<String, Locale> locales;
+    // language of this locale
+    private final String language;
+    // language fallback chain, most specific first
+    private final List<String> fallbackChain;
+    // length of the language's own chain, without the default language
+    private final int own;
+    // language file paths
+    private final List<String> searchPaths;
+    // loaded source of each chain language and search path, chain index * path count + path index, null if not found
+    private final Object[] sources;
+    // text table of the fallback chain, dotted key -> text
+    private MessageTable texts;
+    // compiled message templates by key
+    private final ConcurrentHashMap<String, MessageTemplate> templates = new ConcurrentHashMap<>();
+    // missing key statistics
+    private final LongAdder missingCount = new LongAdder();
+    private final Set<String> missingKeys = ConcurrentHashMap.newKeySet();
 
     /**
      * create the locale instance with specific language and search paths
@@ -20,13 +44,188 @@ public class Locale {
      * @param searchPaths language file paths
      */
     public Locale(String language, List<String> searchPaths) {
-        for (String languageSearchPath : searchPaths) {
-            InputStream inputStream = Context.class.getResourceAsStream(String.format("/%s/%s.yml", languageSearchPath, language));
+        this(language, searchPaths, null);
+    }
+
+    /**
+     * create the locale instance with specific language, search paths and default language.
+     * the language falls back to its parents, zh_TW -> zh, then to the default language chain,
+     * every search path is overlaid, earlier path wins, and the chain is merged once into a single key index,
+     * so that a lookup is one probe while texts of compiled bundles are still decoded on first access.
+     * the compiled $locale.bundle is preferred over $locale.yml in each path unless the yaml file is newer,
+     * a split bundle in $locale/ directory is loaded section by section on demand
+     * @param language target language
+     * @param searchPaths language file paths
+     * @param defaultLanguage last fallback language, null for none
+     */
+    public Locale(String language, List<String> searchPaths, String defaultLanguage) {
+        this(language, fallbackChain(language, defaultLanguage), fallbackChain(language).size(), new ArrayList<>(searchPaths), null, null, null);
+    }
+
+    /**
+     * load the locale, sources of unchanged languages are taken from the previous locale
+     * @param language target language
+     * @param chain fallback chain including the default language chain
+     * @param own length of the language's own chain, at least one of them must be found
+     * @param searchPaths language file paths
+     * @param previous locale to reuse sources from, null to load all
+     * @param changed languages whose files changed, reloaded even if previous is present
+     * @param reloaded sources reloaded by other locales in the same reload, resource path -> source or null, shared so each file is parsed once
+     */
+    private Locale(String language, List<String> chain, int own, List<String> searchPaths, Locale previous, Set<String> changed, Map<String, Object> reloaded) {
+        this.language = language;
+        this.fallbackChain = Collections.unmodifiableList(chain);
+        this.own = own;
+        this.searchPaths = searchPaths;
+        this.sources = new Object[chain.size() * searchPaths.size()];
+
+        // sources in priority order, MessageTable or split bundle layer
+        List<Object> present = new ArrayList<>();
+        boolean loaded = false, split = false;
+        for (int i = 0; i < chain.size(); i++) {
+            for (int p = 0; p < searchPaths.size(); p++) {
+                int slot = i * searchPaths.size() + p;
+                Object source;
+                if (previous != null && !changed.contains(chain.get(i))) {
+                    source = previous.sources[slot];
+                } else if (reloaded != null) {
+                    String resource = searchPaths.get(p) + "/" + chain.get(i);
+                    if (!reloaded.containsKey(resource)) reloaded.put(resource, loadSource(searchPaths.get(p), chain.get(i)));
+                    source = reloaded.get(resource);
+                } else {
+                    source = loadSource(searchPaths.get(p), chain.get(i));
+                }
+                sources[slot] = source;
+                if (source == null) continue;
+                split |= source instanceof SectionedMessageTable.Layer;
+                present.add(source);
+                loaded |= i < own;
+            }
+        }
+        if (!loaded) return;
+        if (split) {
+            List<SectionedMessageTable.Layer> layers = new ArrayList<>();
+            for (Object source : present) {
+                layers.add(source instanceof MessageTable ? SectionedMessageTable.Layer.whole((MessageTable) source) : (SectionedMessageTable.Layer) source);
+            }
+            this.texts = new SectionedMessageTable(layers);
+        } else {
+            List<MessageTable> tables = new ArrayList<>();
+            for (Object source : present) tables.add((MessageTable) source);
+            this.texts = MessageTable.chain(tables);
+        }
+    }
+
+    /**
+     * create the locale with a loaded text table, without fallback, for benchmarks and tools
+     * @param language target language
+     * @param texts text table
+     */
+    Locale(String language, MessageTable texts) {
+        this.language = language;
+        this.fallbackChain = Collections.singletonList(language);
+        this.own = 1;
+        this.searchPaths = Collections.emptyList();
+        this.sources = new Object[0];
+        this.texts = texts;
+    }
+
+    /**
+     * load the locale again after language files changed, only the files of the changed languages are parsed again
+     * @param changed changed languages
+     * @param reloaded sources reloaded by other locales in the same reload, resource path -> source or null
+     * @return reloaded locale, this if loaded from a table directly
+     */
+    Locale reload(Set<String> changed, Map<String, Object> reloaded) {
+        if (sources.length == 0) return this;
+        return new Locale(language, new ArrayList<>(fallbackChain), own, searchPaths, this, changed, reloaded);
+    }
+
+    /**
+     * load the language file or split bundle of the search path
+     * @param searchPath language search path
+     * @param language target language
+     * @return MessageTable or split bundle layer, null if not found
+     */
+    private static Object loadSource(String searchPath, String language) {
+        MessageTable table = loadTable(String.format("/%s/%s", searchPath, language));
+        return table != null ? table : SectionedMessageTable.Layer.split(searchPath, language);
+    }
+
+    /**
+     * get the fallback chain of the language followed by the default language chain
+     * @param language target language
+     * @param defaultLanguage last fallback language, null for none
+     * @return mutable chain, most specific first
+     */
+    private static List<String> fallbackChain(String language, String defaultLanguage) {
+        List<String> chain = fallbackChain(language);
+        if (defaultLanguage != null) {
+            for (String fallback : fallbackChain(defaultLanguage)) {
+                if (!chain.contains(fallback)) chain.add(fallback);
+            }
+        }
+        return chain;
+    }
+
+    /**
+     * get the fallback chain of the language, zh_Hant_TW -> zh_Hant -> zh
+     * @param language target language
+     * @return mutable chain, most specific first
+     */
+    private static List<String> fallbackChain(String language) {
+        List<String> chain = new ArrayList<>();
+        chain.add(language);
+        for (int i = language.lastIndexOf('_'); i > 0; i = language.lastIndexOf('_', i - 1)) {
+            chain.add(language.substring(0, i));
+        }
+        return chain;
+    }
+
+    /**
+     * load the language file, compiled bundle first, then yaml. a yaml file edited after its bundle was compiled,
+     * such as while hot reloading, wins over the stale bundle
+     * @param resource resource path without extension
+     * @return table, null if not found or failed
+     */
+    static MessageTable loadTable(String resource) {
+        URL bundle = Context.class.getResource(resource + "." + BinaryMessageTable.EXTENSION);
+        URL yaml = Context.class.getResource(resource + ".yml");
+        if (bundle != null && !isNewer(yaml, bundle)) {
             try {
-                this.locales = new Yaml().load(inputStream);
-                break;
+                return BinaryMessageTable.open(bundle);
             } catch (Exception e) {}
         }
+        if (yaml == null) return null;
+        try {
+            return MessageTable.of(loadYaml(yaml.openStream()));
+        } catch (Exception e) {}
+        return null;
+    }
+
+    /**
+     * test if the file resource was modified after the other, only filesystem resources are compared
+     * @param resource resource, nullable
+     * @param other other resource
+     * @return if newer
+     */
+    private static boolean isNewer(URL resource, URL other) {
+        if (resource == null || !"file".equals(resource.getProtocol()) || !"file".equals(other.getProtocol())) return false;
+        try {
+            return new File(resource.toURI()).lastModified() > new File(other.toURI()).lastModified();
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * load the yaml language file as flattened texts, streamed from parser events without building the document tree
+     * @param inputStream yaml stream, closed after load
+     * @return dotted key -> text, empty if the document is empty
+     * @throws IOException if read failed
+     */
+    static Map<String, String> loadYaml(InputStream inputStream) throws IOException {
+        return YamlTextLoader.load(inputStream);
     }
 
     /**
@@ -34,24 +233,130 @@ public class Locale {
      * @return if load success
      */
     public boolean isLoaded() {
-        return locales != null;
+        return texts != null;
+    }
+
+    /**
+     * get the language of this locale
+     * @return language
+     */
+    public String getLanguage() {
+        return language;
+    }
+
+    /**
+     * get the resident section prefixes of a split bundle
+     * @return loaded section prefixes, empty if the locale is not a split bundle
+     */
+    public Set<String> getResidentSections() {
+        return texts instanceof SectionedMessageTable ? ((SectionedMessageTable) texts).getResidentSections() : Collections.emptySet();
+    }
+
+    /**
+     * load the sections of the keys ahead of time for a split bundle, missing keys are not reported
+     * @param keys text keys
+     * @return if the locale is a split bundle
+     */
+    boolean warm(Collection<String> keys) {
+        if (!(texts instanceof SectionedMessageTable)) return false;
+        for (String key : keys) texts.get(key);
+        return true;
+    }
+
+    /**
+     * get the loaded text count, only resident sections counted for a split bundle
+     * @return text count, 0 if not loaded
+     */
+    public int size() {
+        return texts != null ? texts.size() : 0;
+    }
+
+    /**
+     * get the compiled message template of the key, compiled once and cached.
+     * a text which is not a valid pattern, such as a literal "{", is reported once and kept as the raw text
+     * @param key text key
+     * @return template, null if the text is missing
+     */
+    public MessageTemplate template(String key) {
+        MessageTemplate template = templates.get(key);
+        if (template != null) return template;
+        String text = text(key);
+        if (text == null) return null;
+        try {
+            template = MessageTemplate.compile(text);
+        } catch (IllegalArgumentException e) {
+            e.printStackTrace();
+            template = MessageTemplate.literal(text);
+        }
+        MessageTemplate existing = templates.putIfAbsent(key, template);
+        return existing != null ? existing : template;
+    }
+
+    /**
+     * format the parameterized i18n text, such as "{0} items selected"
+     * @param key text key
+     * @param args arguments
+     * @return formatted text, null if the text is missing
+     */
+    public String format(String key, Object... args) {
+        MessageTemplate template = template(key);
+        return template != null ? template.format(args) : null;
+    }
+
+    /**
+     * get the keys whose text differs between the locales, only resident texts are compared for split bundles
+     * @param other other locale
+     * @return changed, added or removed keys
+     */
+    Set<String> diff(Locale other) {
+        Set<String> changed = new HashSet<>();
+        if (texts != null) texts.forEach((key, text) -> {
+            if (other.texts == null || !text.equals(other.texts.get(key))) changed.add(key);
+        });
+        if (other.texts != null) other.texts.forEach((key, text) -> {
+            if (texts == null || texts.get(key) == null) changed.add(key);
+        });
+        return changed;
+    }
+
+    /**
+     * get the fallback chain merged into this locale
+     * @return languages, most specific first
+     */
+    public List<String> getFallbackChain() {
+        return fallbackChain;
+    }
+
+    /**
+     * get the count of lookups of missing keys
+     * @return missing lookup count
+     */
+    public long getMissingCount() {
+        return missingCount.sum();
+    }
+
+    /**
+     * get the missing keys looked up
+     * @return unmodifiable view of missing keys
+     */
+    public Set<String> getMissingKeys() {
+        return Collections.unmodifiableSet(missingKeys);
     }
 
     /**
      * get target i18n text
      * @param key text key
-     * @return i18n text
+     * @return i18n text, null if missing in the whole fallback chain
      */
     public String text(String key) {
-        String[] keys = key.split("\\.");
-        Object value = this.locales;
-        for (String k : keys) {
-            if (value instanceof Map) {
-                value = ((Map<?, ?>) value).get(k);
-            } else {
-                return null;
+        String text = texts != null ? texts.get(key) : null;
+        if (text == null) {
+            missingCount.increment();
+            if (missingKeys.add(key)) {
+                ContextListener listener = Context.listener();
+                if (listener != null) listener.textMissing(this, key);
             }
         }
-        return value != null ? value.toString() : null;
+        return text;
     }
 }
@@ -0,0 +1,251 @@
+package io.github.evalexp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LRU cache of parsed locales, keyed by language and search paths
+ */
+public class LocaleCache {
+    // max cached locale count
+    private int capacity;
+    // cached locales, access ordered
+    private final LinkedHashMap<Key, Locale> locales = new LinkedHashMap<Key, Locale>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Locale> eldest) {
+            return size() > capacity;
+        }
+    };
+    // loads in progress, shared by concurrent requests of the same locale
+    private final ConcurrentHashMap<Key, CompletableFuture<Locale>> loading = new ConcurrentHashMap<>();
+    private long hits;
+    private long misses;
+    // bumped by every eviction, loads started before it are not cached
+    private long generation;
+
+    /**
+     * create the cache
+     * @param capacity max cached locale count
+     */
+    LocaleCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * get the cached locale, or load it if absent, failed loads would not be cached
+     * @param language target language
+     * @param searchPaths language file paths
+     * @return locale object
+     */
+    public Locale get(String language, List<String> searchPaths) {
+        return get(language, searchPaths, null);
+    }
+
+    /**
+     * get the cached locale, or load it if absent, failed loads would not be cached.
+     * the cache lock is held only around the map, so different locales load in parallel and concurrent requests of the same one share a single load
+     * @param language target language
+     * @param searchPaths language file paths, snapshotted only when the locale is loaded
+     * @param defaultLanguage last fallback language, null for none
+     * @return locale object
+     */
+    public Locale get(String language, List<String> searchPaths, String defaultLanguage) {
+        Key key = new Key(language, searchPaths, defaultLanguage);
+        long generation;
+        synchronized (this) {
+            Locale locale = locales.get(key);
+            if (locale != null) {
+                hits++;
+                return locale;
+            }
+            misses++;
+            generation = this.generation;
+        }
+        key = key.snapshot();
+        CompletableFuture<Locale> load = new CompletableFuture<>();
+        CompletableFuture<Locale> running = loading.putIfAbsent(key, load);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+                throw e;
+            }
+        }
+        try {
+            Locale locale;
+            synchronized (this) {
+                // loaded by a request which finished between the lookup and the claim
+                locale = locales.get(key);
+            }
+            if (locale == null) {
+                ContextListener listener = Context.listener();
+                long start = listener != null ? System.nanoTime() : 0;
+                locale = new Locale(language, key.searchPaths, defaultLanguage);
+                if (listener != null) listener.localeLoaded(language, locale.isLoaded(), System.nanoTime() - start);
+                synchronized (this) {
+                    // an eviction during the load means the files changed, the result may be stale
+                    if (locale.isLoaded() && this.generation == generation) locales.put(key, locale);
+                }
+            }
+            load.complete(locale);
+            return locale;
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, load);
+        }
+    }
+
+    /**
+     * evict all cached locales of the language, including those falling back to it
+     * @param language target language
+     * @return evicted locale count
+     */
+    public synchronized int evict(String language) {
+        generation++;
+        int count = 0;
+        Iterator<Locale> iterator = locales.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getFallbackChain().contains(language)) {
+                iterator.remove();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * reload the cached locales depending on the changed languages, only the files of the changed languages are parsed again,
+     * once for all locales. locales no longer found are evicted
+     * @param languages changed languages
+     * @return reloaded locale count
+     */
+    public int reload(Set<String> languages) {
+        Map<Key, Locale> stale = new HashMap<>();
+        synchronized (this) {
+            generation++;
+            locales.forEach((key, locale) -> {
+                if (!Collections.disjoint(locale.getFallbackChain(), languages)) stale.put(key, locale);
+            });
+        }
+        Map<String, Object> reloaded = new HashMap<>();
+        Map<Key, Locale> fresh = new HashMap<>();
+        stale.forEach((key, locale) -> fresh.put(key, locale.reload(languages, reloaded)));
+        int count = 0;
+        synchronized (this) {
+            for (Map.Entry<Key, Locale> entry : fresh.entrySet()) {
+                // evicted or replaced meanwhile
+                if (locales.get(entry.getKey()) != stale.get(entry.getKey())) continue;
+                if (entry.getValue().isLoaded()) {
+                    locales.put(entry.getKey(), entry.getValue());
+                    count++;
+                } else {
+                    locales.remove(entry.getKey());
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * evict all cached locales
+     */
+    public synchronized void clear() {
+        generation++;
+        locales.clear();
+    }
+
+    /**
+     * set the max cached locale count, the least recently used locales would be evicted
+     * @param capacity max cached locale count
+     */
+    public synchronized void setCapacity(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be positive");
+        this.capacity = capacity;
+        Iterator<Key> iterator = locales.keySet().iterator();
+        while (locales.size() > capacity && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * get the max cached locale count
+     * @return capacity
+     */
+    public synchronized int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * get cached locale count
+     * @return cached locale count
+     */
+    public synchronized int size() {
+        return locales.size();
+    }
+
+    /**
+     * get the cache hit count
+     * @return hit count
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * get the cache miss count
+     * @return miss count
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * cache key, language with the search paths and the default language
+     */
+    private static final class Key {
+        private final String language;
+        private final List<String> searchPaths;
+        private final String defaultLanguage;
+
+        private Key(String language, List<String> searchPaths, String defaultLanguage) {
+            this.language = language;
+            this.searchPaths = searchPaths;
+            this.defaultLanguage = defaultLanguage;
+        }
+
+        /**
+         * copy the search paths, so that the stored key would not change with the caller's list
+         * @return stored key
+         */
+        private Key snapshot() {
+            return new Key(language, new ArrayList<>(searchPaths), defaultLanguage);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return language.equals(key.language) && searchPaths.equals(key.searchPaths) && Objects.equals(defaultLanguage, key.defaultLanguage);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * language.hashCode() + searchPaths.hashCode()) + Objects.hashCode(defaultLanguage);
+        }
+    }
+}
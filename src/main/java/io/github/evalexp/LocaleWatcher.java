@@ -0,0 +1,161 @@
+package io.github.evalexp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watch the filesystem backed language search paths, changed languages are reported once per debounce window
+ */
+final class LocaleWatcher implements Closeable {
+    private final WatchService watchService;
+    // watched directory -> search path root of it
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+    private final Set<Path> roots = new HashSet<>();
+    private final long debounceMillis;
+    private final Consumer<Set<String>> onChange;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "easy-swing-locale-reload");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Thread thread;
+    // changed languages of the current debounce window, guarded by this
+    private final Set<String> pending = new HashSet<>();
+    private ScheduledFuture<?> flush;
+
+    /**
+     * start watching
+     * @param searchPaths language search paths, base on classpath
+     * @param debounceMillis quiet time before the changes are reported
+     * @param onChange called with the changed languages on the reload thread
+     * @throws IOException if watch failed
+     */
+    LocaleWatcher(List<String> searchPaths, long debounceMillis, Consumer<Set<String>> onChange) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.debounceMillis = debounceMillis;
+        this.onChange = onChange;
+        ClassLoader classLoader = Context.class.getClassLoader();
+        for (String searchPath : searchPaths) {
+            Enumeration<URL> urls = classLoader.getResources(searchPath);
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                if (!"file".equals(url.getProtocol())) continue;
+                try {
+                    Path root = Paths.get(url.toURI());
+                    if (!Files.isDirectory(root)) continue;
+                    roots.add(root);
+                    register(root);
+                    try (DirectoryStream<Path> children = Files.newDirectoryStream(root, Files::isDirectory)) {
+                        for (Path child : children) register(child);
+                    }
+                } catch (URISyntaxException | IllegalArgumentException ignored) {}
+            }
+        }
+        this.thread = new Thread(this::run, "easy-swing-locale-watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * test if any directory is watched
+     * @return if watching
+     */
+    boolean isWatching() {
+        return !directories.isEmpty();
+    }
+
+    private void register(Path directory) throws IOException {
+        WatchKey key = directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        directories.put(key, directory);
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path directory = directories.get(key);
+                if (directory != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) continue;
+                        changed(directory, directory.resolve((Path) event.context()));
+                    }
+                }
+                if (!key.reset()) directories.remove(key);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    /**
+     * record the changed file, a new split bundle directory is watched too
+     * @param directory watched directory
+     * @param file changed file
+     */
+    private void changed(Path directory, Path file) {
+        String name = file.getFileName().toString();
+        boolean root = roots.contains(directory);
+        if (root && Files.isDirectory(file)) {
+            try {
+                register(file);
+            } catch (IOException ignored) {}
+            return;
+        }
+        int dot = name.lastIndexOf('.');
+        if (dot <= 0) return;
+        String extension = name.substring(dot + 1);
+        if (!extension.equals("yml") && !extension.equals(BinaryMessageTable.EXTENSION)) return;
+        String language = root ? name.substring(0, dot) : directory.getFileName().toString();
+        synchronized (this) {
+            pending.add(language);
+            if (flush != null) flush.cancel(false);
+            flush = scheduler.schedule(this::flush, debounceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush() {
+        Set<String> languages;
+        synchronized (this) {
+            languages = new HashSet<>(pending);
+            pending.clear();
+            flush = null;
+        }
+        if (languages.isEmpty()) return;
+        try {
+            onChange.accept(languages);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        scheduler.shutdownNow();
+        thread.interrupt();
+    }
+}
@@ -0,0 +1,144 @@
+package io.github.evalexp;
+
+import javax.swing.*;
+import java.awt.Component;
+import java.awt.Window;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+/**
+ * Incremental look and feel update of the frame trees, the same walk as {@link SwingUtilities#updateComponentTreeUI(Component)}
+ * split into time bounded slices on the EDT, so that input and painting are handled between the slices
+ */
+final class LookAndFeelSwitch {
+    // running switch, replaced by a newer one, EDT confined
+    private static LookAndFeelSwitch running;
+
+    // frames not started yet, in update order
+    private final Deque<Window> frames;
+    // components of the current frame to update, parents before children
+    private final Deque<Component> pending = new ArrayDeque<>();
+    private final long sliceNanos;
+    private final BiConsumer<Integer, Integer> progress;
+    private final CompletableFuture<Void> future;
+    // components of the frames started so far, each tree is counted when its frame starts
+    private int total;
+    private int updated;
+    // frame being updated, validated once its tree is done
+    private Window frame;
+
+    private LookAndFeelSwitch(List<? extends Window> frames, long sliceNanos, BiConsumer<Integer, Integer> progress, CompletableFuture<Void> future) {
+        this.frames = new ArrayDeque<>(frames);
+        this.sliceNanos = sliceNanos;
+        this.progress = progress;
+        this.future = future;
+    }
+
+    /**
+     * start updating the frames from the next EDT slice, the running switch is cancelled, must be called on the EDT
+     * @param frames frames in update order
+     * @param sliceNanos max time of one slice, at least one component is updated per slice
+     * @param progress called after every slice with updated and total component count, the total grows as each frame starts, nullable
+     * @param future completed when all frames are updated, cancelling it stops the switch
+     */
+    static void start(List<? extends Window> frames, long sliceNanos, BiConsumer<Integer, Integer> progress, CompletableFuture<Void> future) {
+        LookAndFeelSwitch.cancel();
+        LookAndFeelSwitch lookAndFeelSwitch = new LookAndFeelSwitch(frames, sliceNanos, progress, future);
+        LookAndFeelSwitch.running = lookAndFeelSwitch;
+        SwingUtilities.invokeLater(lookAndFeelSwitch::slice);
+    }
+
+    /**
+     * cancel the running switch, must be called on the EDT
+     */
+    static void cancel() {
+        if (LookAndFeelSwitch.running != null) LookAndFeelSwitch.running.future.cancel(false);
+        LookAndFeelSwitch.running = null;
+    }
+
+    /**
+     * update components until the slice time is used up, then yield the EDT
+     */
+    private void slice() {
+        if (future.isDone()) {
+            if (LookAndFeelSwitch.running == this) LookAndFeelSwitch.running = null;
+            return;
+        }
+        long deadline = System.nanoTime() + sliceNanos;
+        boolean done = false;
+        try {
+            do {
+                if (pending.isEmpty()) {
+                    if (frame != null) {
+                        frame.invalidate();
+                        frame.validate();
+                        frame.repaint();
+                    }
+                    frame = frames.poll();
+                    if (frame == null) {
+                        done = true;
+                        break;
+                    }
+                    total += count(frame);
+                    pending.push(frame);
+                }
+                update(pending.pop());
+            } while (System.nanoTime() < deadline);
+            // updateUI may replace children, so the count could exceed the one taken at start
+            if (progress != null) progress.accept(done ? total : Math.min(updated, total), total);
+        } catch (RuntimeException e) {
+            if (LookAndFeelSwitch.running == this) LookAndFeelSwitch.running = null;
+            future.completeExceptionally(e);
+            return;
+        }
+        if (done) {
+            if (LookAndFeelSwitch.running == this) LookAndFeelSwitch.running = null;
+            future.complete(null);
+        } else {
+            SwingUtilities.invokeLater(this::slice);
+        }
+    }
+
+    /**
+     * update the ui of the component and queue its children
+     * @param component target component
+     */
+    private void update(Component component) {
+        if (component instanceof JComponent) {
+            JComponent jComponent = (JComponent) component;
+            jComponent.updateUI();
+            JPopupMenu popupMenu = jComponent.getComponentPopupMenu();
+            if (popupMenu != null) pending.push(popupMenu);
+        }
+        Component[] children = children(component);
+        for (int i = children.length - 1; i >= 0; i--) pending.push(children[i]);
+        updated++;
+    }
+
+    /**
+     * count the components of the tree
+     * @param component tree root
+     * @return component count
+     */
+    private static int count(Component component) {
+        int count = 1;
+        if (component instanceof JComponent && ((JComponent) component).getComponentPopupMenu() != null)
+            count += count(((JComponent) component).getComponentPopupMenu());
+        for (Component child : children(component)) count += count(child);
+        return count;
+    }
+
+    /**
+     * get the children walked by the update, menu items for menus
+     * @param component parent component
+     * @return children
+     */
+    private static Component[] children(Component component) {
+        if (component instanceof JMenu) return ((JMenu) component).getMenuComponents();
+        if (component instanceof java.awt.Container) return ((java.awt.Container) component).getComponents();
+        return new Component[0];
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.evalexp;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Immutable dotted key -> text lookup table of a locale
+ */
+interface MessageTable {
+    /**
+     * get the text
+     * @param key dotted text key
+     * @return text if present, else null
+     */
+    String get(String key);
+
+    /**
+     * get the text count
+     * @return text count
+     */
+    int size();
+
+    /**
+     * iterate all texts
+     * @param action key and text action
+     */
+    void forEach(BiConsumer<String, String> action);
+
+    /**
+     * iterate all keys with the slot of their text, the texts are not decoded
+     * @param action key and slot action
+     */
+    void forEachKey(ObjIntConsumer<String> action);
+
+    /**
+     * get the text of the slot given by {@link #forEachKey(ObjIntConsumer)}
+     * @param slot text slot
+     * @return text
+     */
+    String text(int slot);
+
+    /**
+     * merge the tables into one key index at load time, the first table containing the key wins,
+     * so that a lookup is a single probe and lazily decoded tables stay lazy
+     * @param tables tables, highest priority first
+     * @return table, the only table itself if there is one
+     */
+    static MessageTable chain(List<MessageTable> tables) {
+        if (tables.size() == 1) return tables.get(0);
+        return IndexedMessageTable.merge(tables);
+    }
+
+    /**
+     * wrap a flattened map as table
+     * @param texts flattened texts, should not be modified after
+     * @return table
+     */
+    static MessageTable of(Map<String, String> texts) {
+        Map<String, String> view = Collections.unmodifiableMap(texts);
+        String[] keys = view.keySet().toArray(new String[0]);
+        return new MessageTable() {
+            @Override
+            public String get(String key) {
+                return view.get(key);
+            }
+
+            @Override
+            public int size() {
+                return view.size();
+            }
+
+            @Override
+            public void forEach(BiConsumer<String, String> action) {
+                view.forEach(action);
+            }
+
+            @Override
+            public void forEachKey(ObjIntConsumer<String> action) {
+                for (int i = 0; i < keys.length; i++) action.accept(keys[i], i);
+            }
+
+            @Override
+            public String text(int slot) {
+                return view.get(keys[slot]);
+            }
+        };
+    }
+}
@@ -0,0 +1,148 @@
+package io.github.evalexp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precompiled parameterized message, MessageFormat like syntax.
+ * {@code {0}} is replaced with the first argument, format style after a comma such as {@code {0,number}} is ignored,
+ * {@code ''} is a single quote and text in single quotes is literal, for example {@code '{0}'}
+ */
+public final class MessageTemplate {
+    private static final ThreadLocal<Buffer> BUFFER = ThreadLocal.withInitial(Buffer::new);
+
+    // literal segments, one more than slots
+    private final String[] literals;
+    // argument index of each slot
+    private final int[] slots;
+
+    private MessageTemplate(String[] literals, int[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+    }
+
+    /**
+     * compile the message
+     * @param pattern message pattern
+     * @return template
+     * @throws IllegalArgumentException if the pattern has an unclosed or invalid placeholder
+     */
+    public static MessageTemplate compile(String pattern) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+                    literal.append('\'');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == '{' && !quoted) {
+                int end = pattern.indexOf('}', i);
+                if (end < 0) throw new IllegalArgumentException("unclosed placeholder in " + pattern);
+                int comma = pattern.indexOf(',', i);
+                String index = pattern.substring(i + 1, comma > i && comma < end ? comma : end).trim();
+                int slot;
+                try {
+                    slot = Integer.parseInt(index);
+                } catch (NumberFormatException e) {
+                    slot = -1;
+                }
+                if (slot < 0) throw new IllegalArgumentException("invalid placeholder {" + index + "} in " + pattern);
+                slots.add(slot);
+                literals.add(literal.toString());
+                literal.setLength(0);
+                i = end;
+            } else {
+                literal.append(c);
+            }
+        }
+        literals.add(literal.toString());
+        int[] indexes = new int[slots.size()];
+        for (int i = 0; i < indexes.length; i++) indexes[i] = slots.get(i);
+        return new MessageTemplate(literals.toArray(new String[0]), indexes);
+    }
+
+    /**
+     * create the template of the text without placeholders, for texts which are not valid patterns
+     * @param text literal text
+     * @return template
+     */
+    static MessageTemplate literal(String text) {
+        return new MessageTemplate(new String[] {text}, new int[0]);
+    }
+
+    /**
+     * format the message, the per thread buffer is reused so the result string is the only allocation in common cases
+     * @param args arguments
+     * @return formatted message
+     */
+    public String format(Object... args) {
+        if (slots.length == 0) return literals[0];
+        Buffer buffer = BUFFER.get();
+        // an argument's toString may format again on this thread
+        if (buffer.busy) return formatTo(new StringBuilder(), args).toString();
+        buffer.busy = true;
+        try {
+            buffer.builder.setLength(0);
+            return formatTo(buffer.builder, args).toString();
+        } finally {
+            buffer.busy = false;
+        }
+    }
+
+    /**
+     * append the formatted message to the buffer
+     * @param buffer target buffer
+     * @param args arguments
+     * @return the buffer
+     */
+    public StringBuilder formatTo(StringBuilder buffer, Object... args) {
+        buffer.append(literals[0]);
+        for (int i = 0; i < slots.length; i++) {
+            int slot = slots[i];
+            if (args == null || slot >= args.length) {
+                buffer.append('{').append(slot).append('}');
+            } else {
+                append(buffer, args[slot]);
+            }
+            buffer.append(literals[i + 1]);
+        }
+        return buffer;
+    }
+
+    /**
+     * get the placeholder count
+     * @return placeholder count
+     */
+    public int getSlotCount() {
+        return slots.length;
+    }
+
+    /**
+     * reusable per thread format buffer
+     */
+    private static final class Buffer {
+        private final StringBuilder builder = new StringBuilder(64);
+        private boolean busy;
+    }
+
+    /**
+     * append the argument without boxing to string for primitive wrappers
+     * @param buffer target buffer
+     * @param arg argument
+     */
+    private static void append(StringBuilder buffer, Object arg) {
+        if (arg instanceof Integer || arg instanceof Short || arg instanceof Byte) buffer.append(((Number) arg).intValue());
+        else if (arg instanceof Long) buffer.append((long) (Long) arg);
+        else if (arg instanceof Double) buffer.append((double) (Double) arg);
+        else if (arg instanceof Float) buffer.append((float) (Float) arg);
+        else if (arg instanceof CharSequence) buffer.append((CharSequence) arg);
+        else if (arg instanceof Character) buffer.append((char) (Character) arg);
+        else buffer.append(arg);
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.evalexp;
+
+/**
+ * Statistics of a render pass
+ */
+public class RenderStats {
+    int visited;
+    int updated;
+    int skipped;
+    int failed;
+
+    /**
+     * merge another pass into this one
+     * @param other other pass statistics
+     * @return this
+     */
+    RenderStats add(RenderStats other) {
+        this.visited += other.visited;
+        this.updated += other.updated;
+        this.skipped += other.skipped;
+        this.failed += other.failed;
+        return this;
+    }
+
+    /**
+     * get visited component count
+     * @return visited count
+     */
+    public int getVisited() {
+        return visited;
+    }
+
+    /**
+     * get component count whose text setter was called
+     * @return updated count
+     */
+    public int getUpdated() {
+        return updated;
+    }
+
+    /**
+     * get component count skipped since text not changed or no text setter
+     * @return skipped count
+     */
+    public int getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * get component count whose text setter threw, visited is always updated + skipped + failed
+     * @return failed count
+     */
+    public int getFailed() {
+        return failed;
+    }
+
+    @Override
+    public String toString() {
+        return "RenderStats{visited=" + visited + ", updated=" + updated + ", skipped=" + skipped + ", failed=" + failed + "}";
+    }
+}
@@ -0,0 +1,165 @@
+package io.github.evalexp;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Split locale bundle, each top level key prefix is a section file loaded the first time a key of it is looked up.
+ * <pre>
+ * $searchPath/$locale/_root.yml     keys without prefix, marks the split bundle
+ * $searchPath/$locale/$prefix.yml   texts under $prefix, keys relative to it
+ * </pre>
+ * The compiled .bundle of each file is preferred as usual.
+ * Fallback layers are merged once per section when it loads, so a lookup is still a single probe
+ */
+final class SectionedMessageTable implements MessageTable {
+    static final String ROOT = "_root";
+
+    // fallback layers, highest priority first
+    private final List<Layer> layers;
+    // texts of resident sections, full dotted key -> text
+    private final ConcurrentHashMap<String, String> texts = new ConcurrentHashMap<>();
+    // resident section prefixes, including those without file
+    private final Set<String> sections = ConcurrentHashMap.newKeySet();
+
+    /**
+     * create the table, keys without prefix of all layers are merged at once
+     * @param layers fallback layers, highest priority first
+     */
+    SectionedMessageTable(List<Layer> layers) {
+        this.layers = layers;
+        for (Layer layer : layers) {
+            MessageTable root = layer.base != null ? layer.table : layer.sections.get(null);
+            if (root != null) root.forEach(texts::putIfAbsent);
+        }
+    }
+
+    @Override
+    public String get(String key) {
+        String text = texts.get(key);
+        if (text != null) return text;
+        int dot = key.indexOf('.');
+        if (dot <= 0) return null;
+        String prefix = key.substring(0, dot);
+        if (!sections.contains(prefix)) load(prefix);
+        return texts.get(key);
+    }
+
+    /**
+     * load the section of all layers into resident texts
+     * @param prefix section prefix
+     */
+    private synchronized void load(String prefix) {
+        if (sections.contains(prefix)) return;
+        Map<String, String> merged = new HashMap<>();
+        for (Layer layer : layers) {
+            if (layer.base != null) {
+                MessageTable section = Locale.loadTable(layer.base + prefix);
+                if (section != null) section.forEach((key, text) -> merged.putIfAbsent(prefix + "." + key, text));
+            } else {
+                MessageTable section = layer.sections.get(prefix);
+                if (section != null) section.forEach(merged::putIfAbsent);
+            }
+        }
+        texts.putAll(merged);
+        sections.add(prefix);
+    }
+
+    /**
+     * get the resident section prefixes
+     * @return unmodifiable view of loaded prefixes
+     */
+    Set<String> getResidentSections() {
+        return Collections.unmodifiableSet(sections);
+    }
+
+    /**
+     * get the resident text count
+     * @return resident text count
+     */
+    @Override
+    public int size() {
+        return texts.size();
+    }
+
+    /**
+     * iterate the resident texts
+     * @param action key and text action
+     */
+    @Override
+    public void forEach(BiConsumer<String, String> action) {
+        texts.forEach(action);
+    }
+
+    @Override
+    public void forEachKey(ObjIntConsumer<String> action) {
+        // resident texts have no stable slots, a split locale is never merged into another table
+        throw new UnsupportedOperationException("split locale has no slots");
+    }
+
+    @Override
+    public String text(int slot) {
+        throw new UnsupportedOperationException("split locale has no slots");
+    }
+
+    /**
+     * fallback layer, either a split bundle or a whole table grouped by prefix
+     */
+    static final class Layer {
+        // split bundle resource base, /$searchPath/$locale/, null for whole table
+        private final String base;
+        // root section of split bundle
+        private final MessageTable table;
+        // whole table texts by prefix, null key for keys without prefix
+        private final Map<String, MessageTable> sections;
+
+        private Layer(String base, MessageTable table, Map<String, MessageTable> sections) {
+            this.base = base;
+            this.table = table;
+            this.sections = sections;
+        }
+
+        /**
+         * open the split bundle layer if its root section exists
+         * @param searchPath language search path
+         * @param language target language
+         * @return layer, null if the split bundle does not exist
+         */
+        static Layer split(String searchPath, String language) {
+            String base = String.format("/%s/%s/", searchPath, language);
+            MessageTable root = Locale.loadTable(base + ROOT);
+            return root != null ? new Layer(base, root, null) : null;
+        }
+
+        /**
+         * group the whole table by prefix as a layer, only the keys are read, the texts of a section are decoded
+         * when it becomes resident
+         * @param table whole table
+         * @return layer
+         */
+        static Layer whole(MessageTable table) {
+            Map<String, IndexedMessageTable.Builder> grouped = new HashMap<>();
+            table.forEachKey((key, slot) -> {
+                int dot = key.indexOf('.');
+                grouped.computeIfAbsent(dot <= 0 ? null : key.substring(0, dot), k -> new IndexedMessageTable.Builder()).add(key, table, slot);
+            });
+            Map<String, MessageTable> sections = new HashMap<>();
+            grouped.forEach((prefix, section) -> sections.put(prefix, section.build()));
+            return new Layer(null, null, sections);
+        }
+
+        /**
+         * test if this layer is a split bundle
+         * @return if split bundle
+         */
+        boolean isSplit() {
+            return base != null;
+        }
+    }
+}
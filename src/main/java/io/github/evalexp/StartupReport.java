@@ -0,0 +1,53 @@
+package io.github.evalexp;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per phase timing of a multi frame startup, or per initializer timing of a frame
+ */
+public class StartupReport {
+    // phase name -> elapsed nanoseconds, in execution order
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    /**
+     * record a phase
+     * @param phase phase name
+     * @param nanos elapsed nanoseconds
+     */
+    synchronized void record(String phase, long nanos) {
+        phases.merge(phase, nanos, Long::sum);
+    }
+
+    /**
+     * get the elapsed time of all phases
+     * @return unmodifiable phase name -> elapsed nanoseconds
+     */
+    public synchronized Map<String, Long> getPhases() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(phases));
+    }
+
+    /**
+     * get the elapsed time of the phase
+     * @param phase phase name
+     * @param unit time unit
+     * @return elapsed time, 0 if not recorded
+     */
+    public synchronized long getElapsed(String phase, TimeUnit unit) {
+        return unit.convert(phases.getOrDefault(phase, 0L), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder builder = new StringBuilder("StartupReport{");
+        String separator = "";
+        for (Map.Entry<String, Long> phase : phases.entrySet()) {
+            builder.append(separator).append(phase.getKey()).append('=')
+                    .append(TimeUnit.NANOSECONDS.toMillis(phase.getValue())).append("ms");
+            separator = ", ";
+        }
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,234 @@
+package io.github.evalexp;
+
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.reader.UnicodeReader;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stream the yaml language file from parser events into flattened dotted keys, no document tree is built.
+ * Scalars are kept as written, null scalars are dropped, anchors, aliases and {@code <<} merge keys are supported,
+ * a sequence becomes its items joined like {@code [a, {b=c}]}, only a single document is allowed
+ */
+final class YamlTextLoader {
+    private static final String MERGE = "<<";
+    private static final LoaderOptions OPTIONS = new LoaderOptions();
+    private static final Resolver RESOLVER = new Resolver();
+
+    private final Parser parser;
+    // flattened texts, swapped while an anchored mapping is recorded
+    private Map<String, String> texts = new HashMap<>();
+    // anchored scalars and sequences as text, anchored mappings as relative key -> text
+    private final Map<String, Object> anchors = new HashMap<>();
+
+    private YamlTextLoader(Reader reader) {
+        this.parser = new ParserImpl(new StreamReader(reader), OPTIONS);
+    }
+
+    /**
+     * load the yaml language file, the stream is closed
+     * @param inputStream yaml stream, encoding detected by BOM, UTF-8 by default
+     * @return dotted key -> text, empty if the document is empty
+     * @throws IOException if read failed
+     * @throws YAMLException if the document is malformed, not a mapping or followed by another document
+     */
+    static Map<String, String> load(InputStream inputStream) throws IOException {
+        try (Reader reader = new UnicodeReader(inputStream)) {
+            return new YamlTextLoader(reader).document();
+        }
+    }
+
+    private Map<String, String> document() {
+        parser.getEvent();
+        if (parser.checkEvent(Event.ID.StreamEnd)) return texts;
+        parser.getEvent();
+        Event root = parser.getEvent();
+        if (root.is(Event.ID.MappingStart)) {
+            mapping("");
+        } else if (!root.is(Event.ID.Scalar) || text((ScalarEvent) root) != null) {
+            throw new YAMLException("language file must be a mapping");
+        }
+        parser.getEvent();
+        if (parser.checkEvent(Event.ID.DocumentStart))
+            throw new YAMLException("expected a single document in the stream but found another document");
+        return texts;
+    }
+
+    /**
+     * read the entries of the mapping, its start event consumed
+     * @param prefix dotted prefix of the mapping, empty for root
+     */
+    private void mapping(String prefix) {
+        while (!parser.checkEvent(Event.ID.MappingEnd)) {
+            Event key = parser.getEvent();
+            if (key.is(Event.ID.Scalar)) {
+                value(prefix, ((ScalarEvent) key).getValue());
+            } else if (key.is(Event.ID.Alias) && anchors.get(((AliasEvent) key).getAnchor()) instanceof String) {
+                value(prefix, (String) anchors.get(((AliasEvent) key).getAnchor()));
+            } else {
+                // complex key
+                skip(key);
+                skip(parser.getEvent());
+            }
+        }
+        parser.getEvent();
+    }
+
+    /**
+     * read the value of the key
+     * @param prefix dotted prefix of the parent mapping
+     * @param key text key
+     */
+    private void value(String prefix, String key) {
+        Event event = parser.getEvent();
+        String anchor = event instanceof NodeEvent ? ((NodeEvent) event).getAnchor() : null;
+        if (event.is(Event.ID.Scalar)) {
+            String text = text((ScalarEvent) event);
+            if (anchor != null) anchors.put(anchor, text);
+            if (text != null) texts.put(prefix + key, text);
+        } else if (event.is(Event.ID.MappingStart)) {
+            if (anchor == null) {
+                mapping(prefix + key + ".");
+                return;
+            }
+            Map<String, String> outer = texts;
+            Map<String, String> recorded = new LinkedHashMap<>();
+            texts = recorded;
+            mapping("");
+            texts = outer;
+            anchors.put(anchor, recorded);
+            merge(prefix + key + ".", recorded, false);
+        } else if (event.is(Event.ID.SequenceStart)) {
+            List<String> items = new ArrayList<>();
+            while (!parser.checkEvent(Event.ID.SequenceEnd)) {
+                Event item = parser.getEvent();
+                if (item.is(Event.ID.Alias) && key.equals(MERGE)) {
+                    alias(prefix, key, (AliasEvent) item);
+                } else {
+                    items.add(node(item));
+                }
+            }
+            parser.getEvent();
+            if (key.equals(MERGE)) return;
+            String text = items.toString();
+            if (anchor != null) anchors.put(anchor, text);
+            texts.put(prefix + key, text);
+        } else if (event.is(Event.ID.Alias)) {
+            alias(prefix, key, (AliasEvent) event);
+        }
+    }
+
+    /**
+     * copy the anchored value to the key, a merge key copies the anchored mapping into the parent mapping
+     * @param prefix dotted prefix of the parent mapping
+     * @param key text key
+     * @param alias alias event
+     */
+    @SuppressWarnings("unchecked")
+    private void alias(String prefix, String key, AliasEvent alias) {
+        Object target = anchors.get(alias.getAnchor());
+        if (target instanceof String) {
+            texts.put(prefix + key, (String) target);
+        } else if (target instanceof Map) {
+            if (key.equals(MERGE)) merge(prefix, (Map<String, String>) target, true);
+            else merge(prefix + key + ".", (Map<String, String>) target, false);
+        } else if (!anchors.containsKey(alias.getAnchor())) {
+            throw new YAMLException("found undefined alias " + alias.getAnchor());
+        }
+    }
+
+    /**
+     * copy the recorded texts under the prefix
+     * @param prefix dotted prefix
+     * @param recorded relative key -> text
+     * @param keepExisting if explicit keys win, for merge keys
+     */
+    private void merge(String prefix, Map<String, String> recorded, boolean keepExisting) {
+        for (Map.Entry<String, String> entry : recorded.entrySet()) {
+            if (keepExisting) texts.putIfAbsent(prefix + entry.getKey(), entry.getValue());
+            else texts.put(prefix + entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * get the sequence item as text in the form of the loaded object, {@code {a=1}} for a mapping, {@code [a, b]} for a sequence
+     * @param event start event of the node
+     * @return item text, "null" for null scalar
+     */
+    private String node(Event event) {
+        String anchor = event instanceof NodeEvent ? ((NodeEvent) event).getAnchor() : null;
+        String text;
+        if (event.is(Event.ID.Scalar)) {
+            text = String.valueOf(text((ScalarEvent) event));
+        } else if (event.is(Event.ID.Alias)) {
+            String name = ((AliasEvent) event).getAnchor();
+            if (!anchors.containsKey(name)) throw new YAMLException("found undefined alias " + name);
+            Object target = anchors.get(name);
+            text = target instanceof Map ? ((Map<?, ?>) target).toString() : String.valueOf(target);
+        } else if (event.is(Event.ID.MappingStart)) {
+            StringBuilder builder = new StringBuilder("{");
+            while (!parser.checkEvent(Event.ID.MappingEnd)) {
+                if (builder.length() > 1) builder.append(", ");
+                builder.append(node(parser.getEvent())).append('=').append(node(parser.getEvent()));
+            }
+            parser.getEvent();
+            text = builder.append('}').toString();
+        } else {
+            List<String> items = new ArrayList<>();
+            while (!parser.checkEvent(Event.ID.SequenceEnd)) items.add(node(parser.getEvent()));
+            parser.getEvent();
+            text = items.toString();
+        }
+        if (anchor != null) anchors.put(anchor, text);
+        return text;
+    }
+
+    /**
+     * skip the node starting with the event
+     * @param event start event of the node
+     */
+    private void skip(Event event) {
+        if (!event.is(Event.ID.MappingStart) && !event.is(Event.ID.SequenceStart)) return;
+        int depth = 1;
+        while (depth > 0) {
+            Event next = parser.getEvent();
+            if (next.is(Event.ID.MappingStart) || next.is(Event.ID.SequenceStart)) depth++;
+            else if (next.is(Event.ID.MappingEnd) || next.is(Event.ID.SequenceEnd)) depth--;
+        }
+    }
+
+    /**
+     * get the text of the scalar as written
+     * @param scalar scalar event
+     * @return text, null for null scalar
+     */
+    private static String text(ScalarEvent scalar) {
+        if (scalar.getTag() != null) return Tag.NULL.getValue().equals(scalar.getTag()) ? null : scalar.getValue();
+        if (scalar.getImplicit().canOmitTagInPlainScalar() && RESOLVER.resolve(NodeId.scalar, scalar.getValue(), true) == Tag.NULL) return null;
+        return scalar.getValue();
+    }
+
+    static {
+        // multi megabyte bundles exceed the 3MB default
+        OPTIONS.setCodePointLimit(Integer.MAX_VALUE);
+        OPTIONS.setAllowDuplicateKeys(true);
+    }
+}
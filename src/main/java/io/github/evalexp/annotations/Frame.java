@@ -11,4 +11,11 @@ import java.lang.annotation.Target;
 @Target(ElementType.TYPE)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface Frame {
+    /**
+     * max closed frames of this class kept for reuse, 0 to dispose them.
+     * a pooled frame is hidden, reset by its {@link Reset} methods, and reused by the next new frame of this class,
+     * which re-renders it against the current locale and runs only the {@link Initializer#reopen()} initializers
+     * @return pool size
+     */
+    int pool() default 0;
 }
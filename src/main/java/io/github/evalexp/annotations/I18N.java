@@ -16,4 +16,11 @@ public @interface I18N {
      * @return i18n text key
      */
     String key();
+
+    /**
+     * lazy component, a null field is not constructed on wiring but on first {@code Container.resolve(fieldName)},
+     * a field already holding a component is bound when the component becomes displayable
+     * @return if lazy
+     */
+    boolean lazy() default false;
 }
@@ -6,9 +6,37 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
- * Mark the frame initial method
+ * Mark the frame initial method.
+ * Initializers run by order, then by name. Synchronous initializers without pending dependencies run on the thread
+ * creating the frame before it is shown, the ones waiting for dependencies run later on the EDT, async initializers
+ * run on the initializer executor after the frame is shown. A {@link Runnable} returned by an async initializer is run
+ * on the EDT, use it to apply the loaded data to the components, a synchronous one runs it on its own thread.
+ * Overloads share the name, a dependency on the name waits for every overload which accepts the args
  */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface Initializer {
+    /**
+     * run order, lower first
+     * @return order
+     */
+    int order() default 0;
+
+    /**
+     * names of the initializers which should complete before this one, including their returned runnable
+     * @return initializer method names
+     */
+    String[] dependsOn() default {};
+
+    /**
+     * run off the EDT on the initializer executor, the frame would not wait for it
+     * @return if async
+     */
+    boolean async() default false;
+
+    /**
+     * run again with the new args when a pooled frame is reused, other initializers run once per frame instance
+     * @return if run on reopen
+     */
+    boolean reopen() default false;
 }
@@ -0,0 +1,15 @@
+package io.github.evalexp.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Mark the frame reset method, called without args when a closed frame is returned to the pool, see {@link Frame#pool()}.
+ * The method must not have parameters, the frame class is rejected otherwise
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Reset {
+}
@@ -0,0 +1,369 @@
+package io.github.evalexp.util;
+
+import io.github.evalexp.annotations.I18NMethod;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Per class reflection metadata, the class hierarchy is scanned once and cached
+ */
+public final class ClassMetadata {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final ClassValue<ClassMetadata> METADATA = new ClassValue<ClassMetadata>() {
+        @Override
+        protected ClassMetadata computeValue(Class<?> type) {
+            ObjLongConsumer<Class<?>> hook = scanHook;
+            if (hook == null || !scanHookEnabled.getAsBoolean()) return new ClassMetadata(type);
+            long start = System.nanoTime();
+            ClassMetadata metadata = new ClassMetadata(type);
+            hook.accept(type, System.nanoTime() - start);
+            return metadata;
+        }
+    };
+    // primitive type by wrapper class
+    private static final Map<Class<?>, Class<?>> PRIMITIVES = new HashMap<>();
+    // numeric primitives in widening order
+    private static final List<Class<?>> NUMERIC = Arrays.asList(byte.class, short.class, int.class, long.class, float.class, double.class);
+    // called with the class and scan nanos after a class is scanned, installed once by the context, null if not installed
+    private static volatile ObjLongConsumer<Class<?>> scanHook;
+    // if the scan should be measured
+    private static volatile BooleanSupplier scanHookEnabled;
+
+    // target class
+    private final Class<?> type;
+    // declared fields of the class hierarchy, subclass first
+    private final Field[] fields;
+    // @I18NMethod annotated text setter, null if absent
+    private final Method i18nMethod;
+    // fields by annotation
+    private final ConcurrentMap<Class<? extends Annotation>, List<Field>> annotatedFields = new ConcurrentHashMap<>();
+    // methods by name and parameter types, empty if absent
+    private final ConcurrentMap<MethodKey, Optional<Method>> methods = new ConcurrentHashMap<>();
+    // field setters and getters, empty if absent
+    private final ConcurrentMap<Field, Optional<Method>> setters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Field, Optional<Method>> getters = new ConcurrentHashMap<>();
+    // compiled text setters by method
+    private final ConcurrentMap<Method, BiConsumer<Object, String>> textSetters = new ConcurrentHashMap<>();
+    // methods declared by the class itself by annotation
+    private final ConcurrentMap<Class<? extends Annotation>, List<Method>> annotatedMethods = new ConcurrentHashMap<>();
+    // constructor factories by argument classes, empty if no public constructor accepts them
+    private final ConcurrentMap<MethodKey, Optional<InstanceFactory>> factories = new ConcurrentHashMap<>();
+
+    private ClassMetadata(Class<?> type) {
+        this.type = type;
+        List<Field> fields = new ArrayList<>();
+        Method i18nMethod = null;
+        for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            fields.addAll(Arrays.asList(clazz.getDeclaredFields()));
+            if (i18nMethod == null) {
+                for (Method m : clazz.getDeclaredMethods()) {
+                    if (m.isAnnotationPresent(I18NMethod.class) && m.getParameterCount() == 1 && m.getParameterTypes()[0] == String.class) {
+                        i18nMethod = m;
+                        break;
+                    }
+                }
+            }
+        }
+        this.fields = fields.toArray(new Field[0]);
+        this.i18nMethod = i18nMethod;
+    }
+
+    /**
+     * get the metadata of the class
+     * @param type target class
+     * @return cached metadata
+     */
+    public static ClassMetadata of(Class<?> type) {
+        return METADATA.get(type);
+    }
+
+    /**
+     * install the hook called after a class is scanned, for instrumentation, installed once by the context which
+     * forwards the scans to its listeners
+     * @param hook class and scan nanos consumer
+     * @param enabled if the scan should be measured, checked before every scan
+     * @throws IllegalStateException if a hook is already installed
+     */
+    public static synchronized void installScanHook(ObjLongConsumer<Class<?>> hook, BooleanSupplier enabled) {
+        if (ClassMetadata.scanHook != null) throw new IllegalStateException("class scan hook already installed");
+        ClassMetadata.scanHookEnabled = enabled;
+        ClassMetadata.scanHook = hook;
+    }
+
+    /**
+     * get the class of this metadata
+     * @return target class
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * get the fields with specific annotation in the class hierarchy
+     * @param annotationClass annotation class
+     * @return unmodifiable field list
+     */
+    public List<Field> getFieldsByAnnotation(Class<? extends Annotation> annotationClass) {
+        return annotatedFields.computeIfAbsent(annotationClass, a -> {
+            List<Field> result = new ArrayList<>();
+            for (Field field : fields) {
+                if (field.isAnnotationPresent(a)) result.add(field);
+            }
+            return Collections.unmodifiableList(result);
+        });
+    }
+
+    /**
+     * get the method declared in the class hierarchy
+     * @param name method name
+     * @param types method args type
+     * @return method if found, else null
+     */
+    public Method getMethod(String name, Class<?>... types) {
+        return methods.computeIfAbsent(new MethodKey(name, types), k -> {
+            for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+                try {
+                    return Optional.of(clazz.getDeclaredMethod(k.name, k.types));
+                } catch (NoSuchMethodException ignored) {}
+            }
+            return Optional.empty();
+        }).orElse(null);
+    }
+
+    /**
+     * get the setter of the field, named set + capitalized field name
+     * @param field target field
+     * @return method if found, else null
+     */
+    public Method getSetter(Field field) {
+        return setters.computeIfAbsent(field, f ->
+                Optional.ofNullable(getMethod("set" + StringUtil.capitalize(f.getName()), f.getType()))).orElse(null);
+    }
+
+    /**
+     * get the getter of the field, named get + capitalized field name
+     * @param field target field
+     * @return method if found, else null
+     */
+    public Method getGetter(Field field) {
+        return getters.computeIfAbsent(field, f ->
+                Optional.ofNullable(getMethod("get" + StringUtil.capitalize(f.getName())))).orElse(null);
+    }
+
+    /**
+     * get the methods declared by the class itself with specific annotation
+     * @param annotationClass annotation class
+     * @return unmodifiable method list
+     */
+    public List<Method> getDeclaredMethodsByAnnotation(Class<? extends Annotation> annotationClass) {
+        return annotatedMethods.computeIfAbsent(annotationClass, a -> {
+            List<Method> result = new ArrayList<>();
+            for (Method method : type.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(a)) result.add(method);
+            }
+            return Collections.unmodifiableList(result);
+        });
+    }
+
+    /**
+     * get the @I18NMethod annotated text setter
+     * @return method if found, else null
+     */
+    public Method getI18NMethod() {
+        return i18nMethod;
+    }
+
+    /**
+     * get the compiled text setter of the method, the method should only accept one parameter with String type
+     * @param method text setter method of this class
+     * @return setter, call as component.method(text)
+     */
+    public BiConsumer<Object, String> getTextSetter(Method method) {
+        return textSetters.computeIfAbsent(method, ClassMetadata::compileTextSetter);
+    }
+
+    /**
+     * compile the text setter method, use lambda metafactory if the method is public and
+     * its class is visible to the framework, else fall back to method handle
+     * @param method text setter method
+     * @return setter
+     */
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, String> compileTextSetter(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        MethodHandle handle;
+        try {
+            if (!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(declaringClass.getModifiers()))
+                method.setAccessible(true);
+            handle = LOOKUP.unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("inaccessible text setter: " + method, e);
+        }
+        if (Modifier.isPublic(method.getModifiers()) && Modifier.isPublic(declaringClass.getModifiers()) && isVisible(declaringClass)) {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept",
+                        MethodType.methodType(BiConsumer.class),
+                        MethodType.methodType(void.class, Object.class, Object.class),
+                        handle,
+                        MethodType.methodType(void.class, declaringClass, String.class));
+                return (BiConsumer<Object, String>) site.getTarget().invoke();
+            } catch (Throwable ignored) {}
+        }
+        MethodHandle setter = handle.asType(MethodType.methodType(void.class, Object.class, String.class));
+        return (component, text) -> {
+            try {
+                setter.invokeExact(component, text);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+
+    /**
+     * get the factory of the public constructor accepting the args, resolved once per argument class signature.
+     * primitive parameters accept their wrappers with widening, null args match any reference parameter,
+     * the most specific constructor wins when several accept the args, there is none if no one is more specific than
+     * all the others, such as JLabel(String) and JLabel(Icon) for a null arg, like an ambiguous call rejected by javac
+     * @param args construct args
+     * @return factory if found, else null
+     */
+    public InstanceFactory getFactory(Object... args) {
+        Class<?>[] types = new Class<?>[args.length];
+        for (int i = 0; i < args.length; i++) types[i] = args[i] == null ? null : args[i].getClass();
+        MethodKey key = new MethodKey("<init>", types);
+        Optional<InstanceFactory> factory = factories.get(key);
+        if (factory == null) factory = factories.computeIfAbsent(key, k -> Optional.ofNullable(resolveFactory(k.types)));
+        return factory.orElse(null);
+    }
+
+    /**
+     * resolve the most specific public constructor accepting the argument classes
+     * @param types argument classes, null for null argument
+     * @return factory, null if none accepts them, the call is ambiguous or the class is abstract
+     */
+    private InstanceFactory resolveFactory(Class<?>[] types) {
+        if (Modifier.isAbstract(type.getModifiers())) return null;
+        List<Constructor<?>> applicable = new ArrayList<>();
+        for (Constructor<?> constructor : type.getConstructors()) {
+            if (constructor.getParameterCount() != types.length) continue;
+            Class<?>[] parameterTypes = constructor.getParameterTypes();
+            int i = 0;
+            while (i < types.length && isAssignable(parameterTypes[i], types[i])) i++;
+            if (i == types.length) applicable.add(constructor);
+        }
+        Constructor<?> target = null;
+        for (Constructor<?> candidate : applicable) {
+            boolean mostSpecific = true;
+            for (Constructor<?> other : applicable) {
+                if (other != candidate && !isMoreSpecific(candidate.getParameterTypes(), other.getParameterTypes())) {
+                    mostSpecific = false;
+                    break;
+                }
+            }
+            if (!mostSpecific) continue;
+            // parameter lists differ, so at most one could be more specific than all the others
+            target = candidate;
+            break;
+        }
+        return target != null ? new InstanceFactory(LOOKUP, target, types) : null;
+    }
+
+    /**
+     * test if the parameter accepts the argument class by method invocation conversion
+     * @param parameter parameter type
+     * @param argument argument class, primitive when comparing parameter lists, null for null argument
+     * @return if assignable
+     */
+    private static boolean isAssignable(Class<?> parameter, Class<?> argument) {
+        if (argument == null) return !parameter.isPrimitive();
+        if (!parameter.isPrimitive()) {
+            return parameter.isAssignableFrom(argument) || (argument.isPrimitive() && parameter.isAssignableFrom(MethodType.methodType(argument).wrap().returnType()));
+        }
+        Class<?> primitive = argument.isPrimitive() ? argument : PRIMITIVES.get(argument);
+        if (primitive == null) return false;
+        if (primitive == parameter) return true;
+        int to = NUMERIC.indexOf(parameter);
+        return primitive == char.class ? to >= NUMERIC.indexOf(int.class) : NUMERIC.indexOf(primitive) >= 0 && to > NUMERIC.indexOf(primitive);
+    }
+
+    /**
+     * test if every parameter of the candidate is assignable to the current one
+     * @param candidate candidate parameter types
+     * @param current current parameter types
+     * @return if the candidate is more specific
+     */
+    private static boolean isMoreSpecific(Class<?>[] candidate, Class<?>[] current) {
+        for (int i = 0; i < candidate.length; i++) {
+            if (!isAssignable(current[i], candidate[i])) return false;
+        }
+        return true;
+    }
+
+    /**
+     * test if the class could be linked from the framework class loader
+     * @param clazz target class
+     * @return if visible
+     */
+    private static boolean isVisible(Class<?> clazz) {
+        try {
+            return Class.forName(clazz.getName(), false, ClassMetadata.class.getClassLoader()) == clazz;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    static {
+        for (Class<?> primitive : new Class<?>[]{boolean.class, byte.class, short.class, char.class, int.class, long.class, float.class, double.class}) {
+            PRIMITIVES.put(MethodType.methodType(primitive).wrap().returnType(), primitive);
+        }
+    }
+
+    /**
+     * method cache key
+     */
+    private static final class MethodKey {
+        private final String name;
+        private final Class<?>[] types;
+
+        private MethodKey(String name, Class<?>[] types) {
+            this.name = name;
+            this.types = types;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MethodKey)) return false;
+            MethodKey key = (MethodKey) o;
+            return name.equals(key.name) && Arrays.equals(types, key.types);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * name.hashCode() + Arrays.hashCode(types);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.evalexp.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+
+/**
+ * Resolved constructor for one argument type signature, compiled to a spread method handle once
+ */
+public final class InstanceFactory {
+    // resolved constructor
+    private final Constructor<?> constructor;
+    // (Object[])Object handle with the argument conversions applied, null if not accessible to the framework
+    private final MethodHandle handle;
+
+    /**
+     * compile the factory
+     * @param lookup framework lookup
+     * @param constructor resolved constructor
+     * @param argTypes argument classes of the signature, null for null argument
+     */
+    InstanceFactory(MethodHandles.Lookup lookup, Constructor<?> constructor, Class<?>[] argTypes) {
+        this.constructor = constructor;
+        MethodHandle handle = null;
+        try {
+            if (!Modifier.isPublic(constructor.getDeclaringClass().getModifiers())) constructor.setAccessible(true);
+            Class<?>[] parameterTypes = constructor.getParameterTypes();
+            Class<?>[] types = new Class<?>[argTypes.length];
+            for (int i = 0; i < types.length; i++) types[i] = argTypes[i] != null ? argTypes[i] : parameterTypes[i];
+            handle = lookup.unreflectConstructor(constructor)
+                    // unbox and widen from the actual argument classes, then accept plain objects
+                    .asType(MethodType.methodType(Object.class, types))
+                    .asType(MethodType.genericMethodType(types.length))
+                    .asSpreader(Object[].class, types.length);
+        } catch (IllegalAccessException | RuntimeException e) {
+            // reflection fallback
+        }
+        this.handle = handle;
+    }
+
+    /**
+     * create the instance
+     * @param args construct args, of the signature this factory resolved for
+     * @return new instance
+     * @throws InvocationTargetException if the constructor threw
+     * @throws InstantiationException if the class is abstract
+     * @throws IllegalAccessException if the constructor is not accessible
+     */
+    public Object newInstance(Object... args) throws InvocationTargetException, InstantiationException, IllegalAccessException {
+        if (handle == null) return constructor.newInstance(args);
+        try {
+            return (Object) handle.invokeExact(args);
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+
+    /**
+     * get the resolved constructor
+     * @return constructor
+     */
+    public Constructor<?> getConstructor() {
+        return constructor;
+    }
+}
@@ -1,12 +1,9 @@
 package io.github.evalexp.util;
 
-import io.github.evalexp.annotations.I18NMethod;
-
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -20,17 +17,7 @@ public class ReflectUtil {
      * @return all fields with specific annotation
      */
     public static List<Field> searchFieldByAnnotation(Object obj, Class<? extends Annotation> annotationClass) {
-        Class<?> clazz = obj.getClass();
-        List<Field> fields = new ArrayList<>();
-        while (clazz != Object.class) {
-            for (Field field : clazz.getDeclaredFields()) {
-                if (field.isAnnotationPresent(annotationClass)) {
-                    fields.add(field);
-                }
-            }
-            clazz = clazz.getSuperclass();
-        }
-        return fields;
+        return ClassMetadata.of(obj.getClass()).getFieldsByAnnotation(annotationClass);
     }
 
     /**
@@ -40,7 +27,7 @@ public class ReflectUtil {
      * @return method if success, else null
      */
     public static Method searchSetterByField(Object object, Field field) {
-        return ReflectUtil.searchMethodByNameAndType(object, "set" + StringUtil.capitalize(field.getName()), field.getType());
+        return ClassMetadata.of(object.getClass()).getSetter(field);
     }
 
     /**
@@ -50,7 +37,7 @@ public class ReflectUtil {
      * @return method if success, else null
      */
     public static Method searchGetterByField(Object object, Field field) {
-        return ReflectUtil.searchMethodByNameAndType(object, "get" + StringUtil.capitalize(field.getName()));
+        return ClassMetadata.of(object.getClass()).getGetter(field);
     }
 
     /**
@@ -61,17 +48,7 @@ public class ReflectUtil {
      * @return method is success, else null
      */
     private static Method searchMethodByNameAndType(Object object, String name, Class<?>... types) {
-        Class<?> clazz = object.getClass();
-        Method method = null;
-        while (clazz != Object.class) {
-            try {
-                method = clazz.getDeclaredMethod(name, types);
-                break;
-            } catch (NoSuchMethodException e) {
-                clazz = clazz.getSuperclass();
-            }
-        }
-        return method;
+        return ClassMetadata.of(object.getClass()).getMethod(name, types);
     }
 
     /**
@@ -96,45 +73,17 @@ public class ReflectUtil {
      * @return method if success, else null
      */
     public static Method searchI18NCompatibleMethod(Object object) {
-        Class<?> clazz = object.getClass();
-        Method method = null;
-        classSearch: while (clazz != Object.class) {
-            for (Method m : clazz.getDeclaredMethods()) {
-                if (m.isAnnotationPresent(I18NMethod.class) && m.getParameterCount() == 1 && m.getParameterTypes()[0] == String.class) {
-                    method = m;
-                    break classSearch;
-                }
-            }
-            clazz = clazz.getSuperclass();
-        }
-        return method;
+        return ClassMetadata.of(object.getClass()).getI18NMethod();
     }
 
     /**
-     * get the class constructor with specific args
+     * get the class constructor with specific args, resolved once per argument class signature
      * @param clazz target class
      * @param args construct args
      * @return constructor if found, else null
      */
     public static Constructor<?> getConstructor(Class<?> clazz, Object... args) {
-        try {
-            if (args.length == 0) return clazz.getConstructor();
-            Constructor<?> targetConstructor = null;
-            for (Constructor<?> constructor : clazz.getConstructors()) {
-                if (constructor.getParameterCount() == args.length) {
-                    int i = 0;
-                    for (; i < args.length; i++) {
-                        if (!constructor.getParameterTypes()[i].isAssignableFrom(args[i].getClass())) break;
-                    }
-                    if (i == args.length) {
-                        targetConstructor = constructor;
-                        break;
-                    }
-                }
-            }
-            return targetConstructor;
-        } catch (NoSuchMethodException e) {
-            return null;
-        }
+        InstanceFactory factory = ClassMetadata.of(clazz).getFactory(args);
+        return factory != null ? factory.getConstructor() : null;
     }
 }
@@ -0,0 +1,216 @@
+package io.github.evalexp.util;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Insertion ordered map with weak identity keys, entries whose key is collected are pruned through a reference queue.
+ * Not thread safe
+ * @param <K> type of the key
+ * @param <V> type of the value
+ */
+public class WeakIdentityMap<K, V> {
+    private final Map<Key, Entry<K, V>> entries = new LinkedHashMap<>();
+    private final ReferenceQueue<K> queue = new ReferenceQueue<>();
+    // callback of pruned values, null if not needed
+    private final Consumer<V> onPrune;
+    private long pruned;
+
+    /**
+     * create the map
+     */
+    public WeakIdentityMap() {
+        this(null);
+    }
+
+    /**
+     * create the map with prune callback
+     * @param onPrune called with the value of each pruned entry
+     */
+    public WeakIdentityMap(Consumer<V> onPrune) {
+        this.onPrune = onPrune;
+    }
+
+    /**
+     * put the value
+     * @param key target key, compared by identity
+     * @param value value
+     * @return the replaced value, null if absent
+     */
+    public V put(K key, V value) {
+        V old = remove(key);
+        Entry<K, V> entry = new Entry<>(key, value, queue);
+        entries.put(entry, entry);
+        return old;
+    }
+
+    /**
+     * get the entry of the key
+     * @param key target key
+     * @return entry if present, else null
+     */
+    public Entry<K, V> getEntry(K key) {
+        return entries.get(new Probe(key));
+    }
+
+    /**
+     * get the value of the key
+     * @param key target key
+     * @return value if present, else null
+     */
+    public V get(K key) {
+        Entry<K, V> entry = getEntry(key);
+        return entry != null ? entry.value : null;
+    }
+
+    /**
+     * remove the key
+     * @param key target key
+     * @return removed value, null if absent
+     */
+    public V remove(K key) {
+        expunge();
+        Entry<K, V> entry = entries.remove(new Probe(key));
+        if (entry == null) return null;
+        entry.clear();
+        return entry.value;
+    }
+
+    /**
+     * iterate live entries in insertion order
+     * @param action entry action
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        expunge();
+        // snapshot, the action may modify this map
+        List<Entry<K, V>> snapshot = new ArrayList<>(entries.values());
+        for (Entry<K, V> entry : snapshot) {
+            K key = entry.get();
+            if (key != null && entries.get(entry) == entry) action.accept(key, entry.value);
+        }
+    }
+
+    /**
+     * remove all entries
+     */
+    public void clear() {
+        for (Entry<K, V> entry : entries.values()) entry.clear();
+        entries.clear();
+        while (queue.poll() != null) ;
+    }
+
+    /**
+     * get the live entry count, collected entries would be pruned first
+     * @return live entry count
+     */
+    public int size() {
+        expunge();
+        return entries.size();
+    }
+
+    /**
+     * get the count of entries pruned since their key was collected
+     * @return pruned count
+     */
+    public long getPrunedCount() {
+        expunge();
+        return pruned;
+    }
+
+    /**
+     * prune entries whose key was collected
+     */
+    @SuppressWarnings("unchecked")
+    public void expunge() {
+        Object reference;
+        while ((reference = queue.poll()) != null) {
+            Entry<K, V> entry = (Entry<K, V>) reference;
+            // explicitly removed or replaced entries are cleared without enqueue, only prune live ones
+            if (entries.get(entry) == entry) {
+                entries.remove(entry);
+                pruned++;
+                if (onPrune != null) onPrune.accept(entry.value);
+            }
+        }
+    }
+
+    /**
+     * identity key
+     */
+    private interface Key {
+        Object referent();
+    }
+
+    /**
+     * lookup key
+     */
+    private static final class Probe implements Key {
+        private final Object referent;
+
+        private Probe(Object referent) {
+            this.referent = referent;
+        }
+
+        @Override
+        public Object referent() {
+            return referent;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).referent() == referent;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(referent);
+        }
+    }
+
+    /**
+     * map entry, weakly references the key
+     * @param <K> type of the key
+     * @param <V> type of the value
+     */
+    public static final class Entry<K, V> extends WeakReference<K> implements Key {
+        private final int hash;
+        private final V value;
+
+        private Entry(K key, V value, ReferenceQueue<K> queue) {
+            super(key, queue);
+            this.hash = System.identityHashCode(key);
+            this.value = value;
+        }
+
+        @Override
+        public Object referent() {
+            return get();
+        }
+
+        /**
+         * get the value
+         * @return value
+         */
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            Object referent = get();
+            return referent != null && o instanceof Key && ((Key) o).referent() == referent;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.evalexp;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.lang.reflect.InvocationTargetException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stress the container registry with concurrent registration, rendering and locale changes
+ */
+class ContainerConcurrencyTest {
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 500;
+
+    @Test
+    void concurrentRegisterRenderAndLocaleChange() throws Exception {
+        Context.changeLocale("zh_CN");
+        Container container = new Container(new Object(), Collections.singletonList("setText"));
+        Queue<JLabel> labels = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            workers.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ROUNDS; i++) {
+                    switch ((thread + i) % 5) {
+                        case 0:
+                        case 1:
+                            labels.add(container.newComponent(JLabel.class, "title"));
+                            break;
+                        case 2:
+                            container.render();
+                            break;
+                        case 3:
+                            container.render(Collections.singleton("title"));
+                            JLabel released = labels.poll();
+                            if (released != null) container.releaseComponent(released);
+                            break;
+                        default:
+                            Context.changeLocale(i % 2 == 0 ? "en" : "zh_CN");
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        try {
+            for (Future<?> worker : workers) worker.get(60, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Context.changeLocale("en");
+        container.render();
+        RenderStats stats = container.render();
+        String expected = Context.getLocale().text("title");
+        assertTrue(!labels.isEmpty());
+        assertEquals(labels.size(), container.getLiveComponentCount());
+        assertEquals(labels.size(), stats.getVisited());
+        assertEquals(stats.getVisited(), stats.getSkipped(), "every component is up to date");
+        assertEquals(0, stats.getFailed());
+        for (JLabel label : labels) assertEquals(expected, label.getText());
+    }
+
+    @Test
+    void renderOffEdtDoesNotBlockEdtRender() {
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            Context.changeLocale("zh_CN");
+            Container container = new Container(new Object(), Collections.singletonList("setText"));
+            List<EdtSyncLabel> labels = new ArrayList<>();
+            for (int i = 0; i < 20; i++) labels.add(container.newComponent(EdtSyncLabel.class, "title"));
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                for (int i = 0; i < 50; i++) {
+                    Context.changeLocale(i % 2 == 0 ? "en" : "zh_CN");
+                    Future<?> background = executor.submit(() -> container.render());
+                    SwingUtilities.invokeAndWait(() -> container.render());
+                    background.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            String expected = Context.getLocale().text("title");
+            for (JLabel label : labels) assertEquals(expected, label.getText());
+        });
+    }
+
+    /**
+     * label whose text setter waits for the EDT when called off it, like code marshalling Swing calls with invokeAndWait
+     */
+    public static class EdtSyncLabel extends JLabel {
+        public EdtSyncLabel() {}
+
+        @Override
+        public void setText(String text) {
+            super.setText(text);
+            if (SwingUtilities.isEventDispatchThread()) return;
+            try {
+                SwingUtilities.invokeAndWait(() -> {});
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (InvocationTargetException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+}